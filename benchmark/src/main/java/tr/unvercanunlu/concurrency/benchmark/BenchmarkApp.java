@@ -0,0 +1,53 @@
+package tr.unvercanunlu.concurrency.benchmark;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the benchmarks once per thread count.
+// Usage: java -jar benchmark/target/benchmarks.jar [include-regex] [thread-count...]
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BenchmarkApp {
+
+  // logger
+  private static final Logger logger = Logger.getLogger(BenchmarkApp.class.getName());
+
+  @SneakyThrows
+  public static void main(String[] args) {
+    String include = (args.length > 0) ? args[0] : ".*Benchmark.*";
+
+    int[] threadCounts = (args.length > 1)
+        ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+        : defaultThreadCounts();
+
+    for (int threads : threadCounts) {
+      logger.log(Level.INFO, "Benchmarks with {0} threads are starting.", threads);
+
+      Options options = new OptionsBuilder()
+          .include(include)
+          .threads(threads)
+          .resultFormat(ResultFormatType.JSON)
+          .result("jmh-result-%d-threads.json".formatted(threads))
+          .build();
+
+      new Runner(options).run();
+    }
+  }
+
+  // 1, 2, 4, ... up to twice the number of cores
+  private static int[] defaultThreadCounts() {
+    int max = Runtime.getRuntime().availableProcessors() * 2;
+
+    return IntStream.iterate(1, threads -> threads <= max, threads -> threads * 2)
+        .toArray();
+  }
+
+}
@@ -0,0 +1,96 @@
+package tr.unvercanunlu.concurrency.benchmark.account;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.impl.AccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.impl.PrimitiveAccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
+import tr.unvercanunlu.concurrency.data_inconsistency.repository.impl.ConcurrentAccountRepository;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
+
+// Account stores at 100K/1M accounts: struct-of-arrays store against the map-based AccountDao.
+// Memory per account is measured once per trial from the used heap before and after populating, and printed.
+// Every account gets its own IBAN String copy, so the map-based store is charged for its keys.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class AccountDaoBenchmark {
+
+  @Param({"100000", "1000000"})
+  private int accounts;
+
+  @Param({"PRIMITIVE", "MAP"})
+  private String implementation;
+
+  private String[] ibans;
+  private IAccountDao dao;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ibans = new String[accounts];
+
+    for (int i = 0; i < accounts; i++) {
+      ibans[i] = ValueUtil.generateIban();
+    }
+
+    long before = usedHeap();
+
+    dao = "PRIMITIVE".equals(implementation)
+        ? new PrimitiveAccountDao(accounts)
+        : new AccountDao(new ConcurrentAccountRepository());
+
+    ZonedDateTime now = ZonedDateTime.now();
+
+    for (String iban : ibans) {
+      dao.save(Account.builder()
+          .iban(new String(iban))
+          .balance(ThreadLocalRandom.current().nextDouble(1_000))
+          .createdAt(now.plusNanos(1))
+          .updatedAt(now.plusNanos(2))
+          .build());
+    }
+
+    long after = usedHeap();
+
+    System.out.printf("%n%s with %d accounts: %.1f bytes/account%n", implementation, accounts, (after - before) / (double) accounts);
+  }
+
+  @Benchmark
+  public Optional<Account> retrieveByID() {
+    return dao.retrieveByID(ibans[ThreadLocalRandom.current().nextInt(accounts)]);
+  }
+
+  @Benchmark
+  public boolean checkExistByID() {
+    return dao.checkExistByID(ibans[ThreadLocalRandom.current().nextInt(accounts)]);
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+}
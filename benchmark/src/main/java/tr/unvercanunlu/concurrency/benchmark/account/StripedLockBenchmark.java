@@ -0,0 +1,80 @@
+package tr.unvercanunlu.concurrency.benchmark.account;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.impl.AccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.repository.impl.ConcurrentAccountRepository;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.impl.StripedLockAccountService;
+
+// Striped-lock account service: throughput as a function of the stripe count.
+// Accounts are picked at random, so with few stripes unrelated accounts contend on the same lock.
+// Use -t to change the thread count, the default is 4.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class StripedLockBenchmark {
+
+  @Param({"1", "4", "16", "64", "256", "1024"})
+  private int stripes;
+
+  @Param({"10000"})
+  private int accounts;
+
+  private String[] ibans;
+  private StripedLockAccountService service;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    service = new StripedLockAccountService(new AccountDao(new ConcurrentAccountRepository()), stripes);
+
+    ibans = new String[accounts];
+
+    for (int i = 0; i < accounts; i++) {
+      ibans[i] = service.open().getIban();
+
+      // enough balance that transfers never run dry during a trial
+      service.deposit(ibans[i], 1_000_000_000d);
+    }
+  }
+
+  @Benchmark
+  public AccountDto deposit() {
+    return service.deposit(ibans[ThreadLocalRandom.current().nextInt(accounts)], 1);
+  }
+
+  @Benchmark
+  public AccountDto get() {
+    return service.get(ibans[ThreadLocalRandom.current().nextInt(accounts)]);
+  }
+
+  @Benchmark
+  public AccountDto transfer() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    int from = random.nextInt(accounts);
+
+    // any other account, a transfer to the same account is rejected
+    int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+
+    return service.transfer(ibans[from], ibans[to], 1);
+  }
+
+}
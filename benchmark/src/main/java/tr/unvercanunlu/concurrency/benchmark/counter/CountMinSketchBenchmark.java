@@ -0,0 +1,169 @@
+package tr.unvercanunlu.concurrency.benchmark.counter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tr.unvercanunlu.concurrency.race_condition.counter.KeyedCounterSnapshot;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.CountMinSketch;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.KeyedCounterRegistry;
+
+// Count-Min sketch against the exact keyed registry on a skewed key stream.
+// Once per trial both are fed the same stream, the error of every key and the memory of both are printed.
+// A second, multi-threaded stream with one hot key checks that concurrent adds never make the sketch undercount.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CountMinSketchBenchmark {
+
+  private static final int EVENTS_PER_KEY = 10;
+
+  private static final int CONCURRENT_THREADS = 8;
+  private static final int CONCURRENT_EVENTS_PER_THREAD = 1_000_000;
+
+  @Param({"1000000"})
+  private int keys;
+
+  @Param({"4096", "65536"})
+  private int width;
+
+  @Param({"4"})
+  private int depth;
+
+  private CountMinSketch sketch;
+  private KeyedCounterRegistry registry;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    sketch = new CountMinSketch(width, depth, 16);
+    registry = new KeyedCounterRegistry(keys);
+
+    SplittableRandom random = new SplittableRandom(42);
+
+    for (long i = 0; i < (long) keys * EVENTS_PER_KEY; i++) {
+      long key = skewed(random.nextDouble());
+
+      sketch.increment(key);
+      registry.increment(key);
+    }
+
+    long bound = sketch.errorBound();
+    long withinBound = 0;
+    long maxError = 0;
+    double errorSum = 0;
+
+    KeyedCounterSnapshot exact = registry.snapshot();
+
+    while (exact.next()) {
+      long error = sketch.estimate(exact.key()) - exact.value();
+
+      if (error < 0) {
+        throw new IllegalStateException("Sketch undercounts!");
+      }
+
+      if (error <= bound) {
+        withinBound++;
+      }
+
+      maxError = Math.max(maxError, error);
+      errorSum += error;
+    }
+
+    System.out.printf("%nwidth=%d depth=%d keys=%d events=%d%n", width, depth, exact.size(), sketch.total());
+    System.out.printf("error: mean=%.2f max=%d bound=%d within-bound=%.4f%n", errorSum / exact.size(), maxError, bound, withinBound / (double) exact.size());
+    System.out.printf("memory: sketch=%d bytes exact=%d bytes saved=%.1f%%%n", sketch.footprint(), registry.footprint(), 100d * (registry.footprint() - sketch.footprint()) / registry.footprint());
+
+    KeyedCounterSnapshot hitters = sketch.topK();
+
+    while (hitters.next()) {
+      System.out.printf("heavy hitter: key=%d estimate=%d exact=%d%n", hitters.key(), hitters.value(), registry.get(hitters.key()));
+    }
+
+    checkConcurrentUndercount();
+  }
+
+  // every thread adds a hot key and a skewed key per event, the exact counts come from the registry
+  private void checkConcurrentUndercount() {
+    CountMinSketch concurrentSketch = new CountMinSketch(width, depth, 16);
+    KeyedCounterRegistry concurrentRegistry = new KeyedCounterRegistry(keys);
+
+    List<Thread> threads = new ArrayList<>(CONCURRENT_THREADS);
+
+    for (int t = 0; t < CONCURRENT_THREADS; t++) {
+      SplittableRandom random = new SplittableRandom(t);
+
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < CONCURRENT_EVENTS_PER_THREAD; i++) {
+          long key = skewed(random.nextDouble());
+
+          concurrentSketch.increment(0);
+          concurrentSketch.increment(key);
+          concurrentRegistry.increment(key);
+        }
+      }));
+    }
+
+    threads.forEach(Thread::start);
+
+    for (Thread thread : threads) {
+      try {
+        thread.join();
+
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Concurrent check interrupted!", e);
+      }
+    }
+
+    long undercounts = 0;
+
+    KeyedCounterSnapshot exact = concurrentRegistry.snapshot();
+
+    while (exact.next()) {
+      long expected = exact.value() + ((exact.key() == 0) ? (long) CONCURRENT_THREADS * CONCURRENT_EVENTS_PER_THREAD : 0);
+
+      if (concurrentSketch.estimate(exact.key()) < expected) {
+        undercounts++;
+      }
+    }
+
+    System.out.printf("concurrent: threads=%d hot-key estimate=%d exact=%d undercounted keys=%d%n", CONCURRENT_THREADS,
+        concurrentSketch.estimate(0), concurrentRegistry.get(0) + (long) CONCURRENT_THREADS * CONCURRENT_EVENTS_PER_THREAD, undercounts);
+
+    if (undercounts > 0) {
+      throw new IllegalStateException("Sketch undercounts under concurrent adds!");
+    }
+  }
+
+  @Benchmark
+  public void increment() {
+    sketch.increment(skewed(ThreadLocalRandom.current().nextDouble()));
+  }
+
+  @Benchmark
+  public long estimate() {
+    return sketch.estimate(skewed(ThreadLocalRandom.current().nextDouble()));
+  }
+
+  // low keys are much more frequent than high keys
+  private long skewed(double uniform) {
+    return (long) (keys * Math.pow(uniform, 4));
+  }
+
+}
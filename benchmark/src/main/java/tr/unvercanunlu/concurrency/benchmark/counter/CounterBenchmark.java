@@ -0,0 +1,76 @@
+package tr.unvercanunlu.concurrency.benchmark.counter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tr.unvercanunlu.concurrency.race_condition.counter.CounterType;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Benchmarks every counter in CounterType with a configurable read/write mix.
+// Thread count is given by the runner (BenchmarkApp) or with -t on the command line.
+// Throughput gives ops/sec, SampleTime gives average and percentile latency.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CounterBenchmark {
+
+  // empty means all values of the enum
+  @Param
+  private CounterType type;
+
+  // percentage of operations which are retrieve, the rest is split evenly between increment and decrement
+  @Param({"0", "50", "90"})
+  private int readPercent;
+
+  private ICounter counter;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    counter = type.create();
+  }
+
+  @Benchmark
+  public long operation(ThreadState state) {
+    int slot = state.next();
+
+    if (slot < readPercent) {
+      return counter.retrieve();
+    }
+
+    if ((slot & 1) == 0) {
+      counter.increment();
+    } else {
+      counter.decrement();
+    }
+
+    return slot;
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+
+    private int sequence;
+
+    // deterministic sequence 0..99, keeps the mix exact and costs nothing compared to a random generator
+    int next() {
+      int slot = sequence;
+      sequence = (slot == 99) ? 0 : slot + 1;
+      return slot;
+    }
+
+  }
+
+}
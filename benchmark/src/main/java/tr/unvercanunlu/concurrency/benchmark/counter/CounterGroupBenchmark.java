@@ -0,0 +1,82 @@
+package tr.unvercanunlu.concurrency.benchmark.counter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tr.unvercanunlu.concurrency.race_condition.counter.CounterGroup;
+
+// Counter group updates with and without a concurrent snapshot reader.
+// - plain: padded AtomicLongArray, the update cost without snapshot support
+// - group: CounterGroup updates only, the registration overhead
+// - snapshotted: CounterGroup updates while one thread takes snapshots, the writer slowdown and the snapshot cost
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class CounterGroupBenchmark {
+
+  private static final int PADDING = 8;
+
+  @Param({"4", "32"})
+  private int members;
+
+  private CounterGroup group;
+  private AtomicLongArray plain;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    String[] names = new String[members];
+
+    for (int i = 0; i < members; i++) {
+      names[i] = "counter-" + i;
+    }
+
+    group = new CounterGroup(names);
+    plain = new AtomicLongArray((members + 1) * PADDING);
+  }
+
+  @Benchmark
+  @Group("plain")
+  @GroupThreads(3)
+  public void plainUpdate() {
+    plain.getAndIncrement((ThreadLocalRandom.current().nextInt(members) + 1) * PADDING);
+  }
+
+  @Benchmark
+  @Group("group")
+  @GroupThreads(3)
+  public void groupUpdate() {
+    group.increment(ThreadLocalRandom.current().nextInt(members));
+  }
+
+  @Benchmark
+  @Group("snapshotted")
+  @GroupThreads(3)
+  public void snapshottedUpdate() {
+    group.increment(ThreadLocalRandom.current().nextInt(members));
+  }
+
+  @Benchmark
+  @Group("snapshotted")
+  @GroupThreads(1)
+  public long[] snapshot() {
+    return group.snapshot();
+  }
+
+}
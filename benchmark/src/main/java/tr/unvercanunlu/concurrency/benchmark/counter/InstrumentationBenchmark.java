@@ -0,0 +1,52 @@
+package tr.unvercanunlu.concurrency.benchmark.counter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tr.unvercanunlu.concurrency.race_condition.counter.IInstrumentedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.InstrumentedAtomicCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.InstrumentedLockedCounter;
+
+// Overhead of the instrumentation: the same counter with metrics on and off
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+
+  @Param({"ATOMIC", "LOCKED"})
+  private String type;
+
+  @Param({"true", "false"})
+  private boolean enabled;
+
+  private IInstrumentedCounter counter;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    counter = "ATOMIC".equals(type) ? new InstrumentedAtomicCounter(enabled) : new InstrumentedLockedCounter(enabled);
+  }
+
+  @Benchmark
+  public void increment() {
+    counter.increment();
+  }
+
+  @Benchmark
+  public long retrieve() {
+    return counter.retrieve();
+  }
+
+}
@@ -0,0 +1,97 @@
+package tr.unvercanunlu.concurrency.benchmark.counter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.KeyedCounterRegistry;
+
+// Keyed counters at 1M/10M keys: primitive registry against ConcurrentHashMap<Long, LongAdder>.
+// Memory per key is measured once per trial from the used heap before and after populating, and printed.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class KeyedCounterRegistryBenchmark {
+
+  @Param({"1000000", "10000000"})
+  private int keys;
+
+  @Param({"PRIMITIVE", "CONCURRENT_HASH_MAP"})
+  private String implementation;
+
+  private KeyedCounterRegistry registry;
+  private ConcurrentHashMap<Long, LongAdder> map;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    long before = usedHeap();
+
+    if ("PRIMITIVE".equals(implementation)) {
+      registry = new KeyedCounterRegistry();
+
+      for (long key = 0; key < keys; key++) {
+        registry.increment(key);
+      }
+
+    } else {
+      map = new ConcurrentHashMap<>();
+
+      for (long key = 0; key < keys; key++) {
+        map.computeIfAbsent(key, k -> new LongAdder()).increment();
+      }
+    }
+
+    long after = usedHeap();
+
+    System.out.printf("%n%s with %d keys: %.1f bytes/key%n", implementation, keys, (after - before) / (double) keys);
+  }
+
+  @Benchmark
+  public void increment() {
+    long key = ThreadLocalRandom.current().nextLong(keys);
+
+    if (registry != null) {
+      registry.increment(key);
+    } else {
+      map.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+  }
+
+  @Benchmark
+  public long get() {
+    long key = ThreadLocalRandom.current().nextLong(keys);
+
+    if (registry != null) {
+      return registry.get(key);
+    }
+
+    LongAdder adder = map.get(key);
+    return (adder == null) ? 0 : adder.sum();
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+}
@@ -0,0 +1,65 @@
+package tr.unvercanunlu.concurrency.benchmark.counter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.BoundedCounter;
+
+// Bounded counter as a permit pool against Semaphore.
+// Each operation tries to take one permit and gives it back; a small pool keeps the counter near its bound.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermitPoolBenchmark {
+
+  @Param({"BOUNDED", "SEMAPHORE"})
+  private String implementation;
+
+  @Param({"4", "1000000"})
+  private int permits;
+
+  private BoundedCounter counter;
+  private Semaphore semaphore;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    if ("BOUNDED".equals(implementation)) {
+      counter = new BoundedCounter(0, permits, permits);
+    } else {
+      semaphore = new Semaphore(permits);
+    }
+  }
+
+  @Benchmark
+  public boolean acquireRelease() {
+    if (counter != null) {
+      if (counter.tryAcquire(1)) {
+        return counter.tryRelease(1);
+      }
+
+      return false;
+    }
+
+    if (semaphore.tryAcquire()) {
+      semaphore.release();
+      return true;
+    }
+
+    return false;
+  }
+
+}
@@ -1,34 +1,59 @@
 package tr.unvercanunlu.concurrency.data_inconsistency;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import tr.unvercanunlu.concurrency.data_inconsistency.config.Config;
 import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
 import tr.unvercanunlu.concurrency.data_inconsistency.dao.impl.AccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.impl.PrimitiveAccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.repository.impl.ConcurrentAccountRepository;
 import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
 import tr.unvercanunlu.concurrency.data_inconsistency.service.impl.AccountLockAccountService;
 import tr.unvercanunlu.concurrency.data_inconsistency.service.impl.AccountReadWriteLockAccountService;
 import tr.unvercanunlu.concurrency.data_inconsistency.service.impl.AccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.impl.LockFreeAccountService;
 import tr.unvercanunlu.concurrency.data_inconsistency.service.impl.SingleGlobalLockAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.impl.StampedLockAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.impl.StripedLockAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.task.ExecutionMode;
 import tr.unvercanunlu.concurrency.data_inconsistency.task.ITaskRunner;
+import tr.unvercanunlu.concurrency.data_inconsistency.task.ITransferTaskRunner;
+import tr.unvercanunlu.concurrency.data_inconsistency.task.impl.MeasuredTaskRunner;
 import tr.unvercanunlu.concurrency.data_inconsistency.task.impl.TaskRunner;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 
 public class App {
 
   // runner
-  private final ITaskRunner taskRunner = new TaskRunner();
+  private final ITaskRunner taskRunner;
 
   // logger
   private final Logger logger = Logger.getLogger(this.getClass().getName());
 
+  private App(ExecutionMode mode) {
+    this.taskRunner = mode.createRunner();
+  }
+
+  // usage: App [THREAD|VIRTUAL|MEASURED]
   public static void main(String[] args) {
-    App app = new App();
+    ExecutionMode mode = (args.length > 0) ? ExecutionMode.valueOf(args[0].toUpperCase()) : ExecutionMode.THREAD;
+
+    App app = new App(mode);
 
     app.problem();
     app.solutionWithSingleGlobalLock();
     app.solutionWithAccountLock();
     app.solutionWithAccountReadWriteLock();
+    app.solutionWithAccountStampedLock();
+    app.solutionWithStripedLock();
+    app.solutionWithLockFree();
+    app.readHeavyComparison();
+    app.transferWorkload();
+    app.transferWorkloadWithPrimitiveDao();
   }
 
   public void problem() {
@@ -84,7 +109,8 @@ public class App {
     // read operations
     long checkBalances = ValueUtil.generateNumber(Config.CHECK_BALANCE_OPERATION_COUNT_MIN, Config.CHECK_BALANCE_OPERATION_COUNT_MAX);
 
-    IAccountDao dao = new AccountDao();
+    // per-account locks do not protect the map itself, the repository has to be concurrent
+    IAccountDao dao = new AccountDao(new ConcurrentAccountRepository());
     IAccountService service = new AccountLockAccountService(dao);
     taskRunner.run(service, accounts, deposits, withdraws, checkBalances);
 
@@ -104,11 +130,145 @@ public class App {
     // read operations
     long checkBalances = ValueUtil.generateNumber(Config.CHECK_BALANCE_OPERATION_COUNT_MIN, Config.CHECK_BALANCE_OPERATION_COUNT_MAX);
 
-    IAccountDao dao = new AccountDao();
+    // per-account locks do not protect the map itself, the repository has to be concurrent
+    IAccountDao dao = new AccountDao(new ConcurrentAccountRepository());
     IAccountService service = new AccountReadWriteLockAccountService(dao);
     taskRunner.run(service, accounts, deposits, withdraws, checkBalances);
 
     logger.log(Level.INFO, "Account Read-Write Lock - begin");
   }
 
+  public void solutionWithAccountStampedLock() {
+    logger.log(Level.INFO, "Account Stamped Lock - begin");
+
+    // accounts
+    long accounts = ValueUtil.generateNumber(Config.ACCOUNT_COUNT_MIN, Config.ACCOUNT_COUNT_MAX);
+
+    // write operations
+    long deposits = ValueUtil.generateNumber(Config.DEPOSIT_OPERATION_COUNT_MIN, Config.DEPOSIT_OPERATION_COUNT_MAX);
+    long withdraws = ValueUtil.generateNumber(Config.WITHDRAW_OPERATION_COUNT_MIN, Config.WITHDRAW_OPERATION_COUNT_MAX);
+
+    // read operations
+    long checkBalances = ValueUtil.generateNumber(Config.CHECK_BALANCE_OPERATION_COUNT_MIN, Config.CHECK_BALANCE_OPERATION_COUNT_MAX);
+
+    // per-account locks do not protect the map itself, the repository has to be concurrent
+    IAccountDao dao = new AccountDao(new ConcurrentAccountRepository());
+    IAccountService service = new StampedLockAccountService(dao);
+    taskRunner.run(service, accounts, deposits, withdraws, checkBalances);
+
+    logger.log(Level.INFO, "Account Stamped Lock - end");
+  }
+
+  public void solutionWithStripedLock() {
+    logger.log(Level.INFO, "Striped Lock - begin");
+
+    // accounts
+    long accounts = ValueUtil.generateNumber(Config.ACCOUNT_COUNT_MIN, Config.ACCOUNT_COUNT_MAX);
+
+    // write operations
+    long deposits = ValueUtil.generateNumber(Config.DEPOSIT_OPERATION_COUNT_MIN, Config.DEPOSIT_OPERATION_COUNT_MAX);
+    long withdraws = ValueUtil.generateNumber(Config.WITHDRAW_OPERATION_COUNT_MIN, Config.WITHDRAW_OPERATION_COUNT_MAX);
+
+    // read operations
+    long checkBalances = ValueUtil.generateNumber(Config.CHECK_BALANCE_OPERATION_COUNT_MIN, Config.CHECK_BALANCE_OPERATION_COUNT_MAX);
+
+    // stripes do not protect the map itself, the repository has to be concurrent
+    IAccountDao dao = new AccountDao(new ConcurrentAccountRepository());
+    IAccountService service = new StripedLockAccountService(dao, Config.LOCK_STRIPE_COUNT);
+    taskRunner.run(service, accounts, deposits, withdraws, checkBalances);
+
+    logger.log(Level.INFO, "Striped Lock - end");
+  }
+
+  public void solutionWithLockFree() {
+    logger.log(Level.INFO, "Lock-Free - begin");
+
+    // accounts
+    long accounts = ValueUtil.generateNumber(Config.ACCOUNT_COUNT_MIN, Config.ACCOUNT_COUNT_MAX);
+
+    // write operations
+    long deposits = ValueUtil.generateNumber(Config.DEPOSIT_OPERATION_COUNT_MIN, Config.DEPOSIT_OPERATION_COUNT_MAX);
+    long withdraws = ValueUtil.generateNumber(Config.WITHDRAW_OPERATION_COUNT_MIN, Config.WITHDRAW_OPERATION_COUNT_MAX);
+
+    // read operations
+    long checkBalances = ValueUtil.generateNumber(Config.CHECK_BALANCE_OPERATION_COUNT_MIN, Config.CHECK_BALANCE_OPERATION_COUNT_MAX);
+
+    // balances live in the service cells, the dao only holds the account records
+    IAccountDao dao = new AccountDao(new ConcurrentAccountRepository());
+    IAccountService service = new LockFreeAccountService(dao);
+    taskRunner.run(service, accounts, deposits, withdraws, checkBalances);
+
+    logger.log(Level.INFO, "Lock-Free - end");
+  }
+
+  // same read-heavy load on the read-write lock and the stamped lock services
+  // always measured, the throughput is only reported by the measured runner
+  public void readHeavyComparison() {
+    logger.log(Level.INFO, "Read-Heavy Comparison - begin");
+
+    ITaskRunner measuredRunner = new MeasuredTaskRunner();
+
+    // accounts
+    long accounts = ValueUtil.generateNumber(Config.ACCOUNT_COUNT_MIN, Config.ACCOUNT_COUNT_MAX);
+
+    // write operations
+    long deposits = ValueUtil.generateNumber(Config.DEPOSIT_OPERATION_COUNT_MIN, Config.DEPOSIT_OPERATION_COUNT_MAX);
+    long withdraws = ValueUtil.generateNumber(Config.WITHDRAW_OPERATION_COUNT_MIN, Config.WITHDRAW_OPERATION_COUNT_MAX);
+
+    // read operations
+    long checkBalances = (deposits + withdraws) * Config.READ_HEAVY_CHECK_BALANCE_FACTOR;
+
+    logger.log(Level.INFO, "Read-Heavy Comparison - Account Read-Write Lock");
+    IAccountService readWriteLockService = new AccountReadWriteLockAccountService(new AccountDao(new ConcurrentAccountRepository()));
+    measuredRunner.run(readWriteLockService, accounts, deposits, withdraws, checkBalances);
+
+    logger.log(Level.INFO, "Read-Heavy Comparison - Account Stamped Lock");
+    IAccountService stampedLockService = new StampedLockAccountService(new AccountDao(new ConcurrentAccountRepository()));
+    measuredRunner.run(stampedLockService, accounts, deposits, withdraws, checkBalances);
+
+    logger.log(Level.INFO, "Read-Heavy Comparison - end");
+  }
+
+  // same transfer-heavy load on every service, the total balance must be conserved
+  public void transferWorkload() {
+    transferWorkload("Transfer Workload", () -> new AccountDao(new ConcurrentAccountRepository()));
+  }
+
+  // the primitive dao returns detached copies instead of the stored account, the services must not depend on sharing
+  public void transferWorkloadWithPrimitiveDao() {
+    transferWorkload("Transfer Workload with Primitive DAO", PrimitiveAccountDao::new);
+  }
+
+  private void transferWorkload(String title, Supplier<IAccountDao> daoFactory) {
+    logger.log(Level.INFO, "{0} - begin", title);
+
+    ITransferTaskRunner transferRunner = new TaskRunner();
+
+    // accounts
+    long accounts = ValueUtil.generateNumber(Config.ACCOUNT_COUNT_MIN, Config.ACCOUNT_COUNT_MAX);
+
+    // transfer operations
+    long transfers = ValueUtil.generateNumber(Config.TRANSFER_OPERATION_COUNT_MIN, Config.TRANSFER_OPERATION_COUNT_MAX);
+    long batchTransfers = ValueUtil.generateNumber(Config.BATCH_TRANSFER_OPERATION_COUNT_MIN, Config.BATCH_TRANSFER_OPERATION_COUNT_MAX);
+
+    Map<String, IBatchTransferAccountService> services = new LinkedHashMap<>();
+    services.put("Problem", new AccountService(daoFactory.get()));
+    services.put("Single Global Lock", new SingleGlobalLockAccountService(daoFactory.get()));
+    services.put("Account Lock", new AccountLockAccountService(daoFactory.get()));
+    services.put("Account Read-Write Lock", new AccountReadWriteLockAccountService(daoFactory.get()));
+    services.put("Account Stamped Lock", new StampedLockAccountService(daoFactory.get()));
+    services.put("Striped Lock", new StripedLockAccountService(daoFactory.get()));
+
+    services.forEach((name, service) -> {
+      logger.log(Level.INFO, "{0} - {1}", new Object[]{title, name});
+      transferRunner.runTransfers(service, accounts, transfers, batchTransfers);
+    });
+
+    // no batch transfers without locks
+    logger.log(Level.INFO, "{0} - Lock-Free", title);
+    transferRunner.runTransfers(new LockFreeAccountService(daoFactory.get()), accounts, transfers);
+
+    logger.log(Level.INFO, "{0} - end", title);
+  }
+
 }
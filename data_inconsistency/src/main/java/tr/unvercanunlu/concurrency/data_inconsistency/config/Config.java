@@ -24,10 +24,36 @@ public class Config {
   public static final long WITHDRAW_OPERATION_COUNT_MIN = 1_000;
   public static final long WITHDRAW_OPERATION_COUNT_MAX = 10_000;
 
+  public static final long TRANSFER_OPERATION_COUNT_MIN = 1_000;
+  public static final long TRANSFER_OPERATION_COUNT_MAX = 10_000;
+
+  public static final long BATCH_TRANSFER_OPERATION_COUNT_MIN = 100;
+  public static final long BATCH_TRANSFER_OPERATION_COUNT_MAX = 1_000;
+
+  // transfers in one batch transfer
+  public static final int BATCH_TRANSFER_SIZE = 4;
+
+  // read-heavy comparison: check-balance operations per deposit or withdraw
+  public static final long READ_HEAVY_CHECK_BALANCE_FACTOR = 20;
+
   public static final long DEPOSIT_AMOUNT_MIN = 100;
   public static final long DEPOSIT_AMOUNT_MAX = 1_000;
 
   public static final long WITHDRAW_AMOUNT_MIN = 1;
   public static final long WITHDRAW_AMOUNT_MAX = 10;
 
+  public static final long TRANSFER_AMOUNT_MIN = 1;
+  public static final long TRANSFER_AMOUNT_MAX = 10;
+
+  // opening balance of every account in the transfer workload
+  public static final long TRANSFER_INITIAL_BALANCE = 10_000;
+
+  // fixed-point balances: 1 unit = 100 minor units (cents)
+  public static final long MINOR_UNITS_PER_UNIT = 100;
+
+  public static final int WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+
+  // locks shared by all accounts in StripedLockAccountService, rounded up to a power of two
+  public static final int LOCK_STRIPE_COUNT = 1_024;
+
 }
@@ -2,15 +2,22 @@ package tr.unvercanunlu.concurrency.data_inconsistency.dao;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 public interface IDao<T, E> {
 
   E save(E entity);
 
+  // saves only if no entity exists with the same ID, returns false otherwise
+  boolean saveIfAbsent(E entity);
+
   Optional<E> retrieveByID(T iban);
 
   List<E> retrieveAll();
 
+  // applies the update to the existing entity as a single step, empty if it does not exist
+  Optional<E> updateIfPresent(T iban, UnaryOperator<E> update);
+
   void deleteByID(T iban);
 
   boolean checkExistByID(T iban);
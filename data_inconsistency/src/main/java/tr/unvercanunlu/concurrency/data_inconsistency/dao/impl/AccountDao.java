@@ -3,6 +3,7 @@ package tr.unvercanunlu.concurrency.data_inconsistency.dao.impl;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
 import tr.unvercanunlu.concurrency.data_inconsistency.repository.IRepository;
@@ -12,7 +13,15 @@ import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 public class AccountDao implements IAccountDao {
 
   // repository
-  private final IRepository<String, Account> accountRepository = new AccountRepository();
+  private final IRepository<String, Account> accountRepository;
+
+  public AccountDao() {
+    this(new AccountRepository());
+  }
+
+  public AccountDao(IRepository<String, Account> accountRepository) {
+    this.accountRepository = accountRepository;
+  }
 
   @Override
   public Account save(Account account) {
@@ -27,17 +36,38 @@ public class AccountDao implements IAccountDao {
     }
 
     // critical section - begin
-    if (accountRepository.getEntities().containsKey(account.getIban())) {
-      account.setUpdatedAt(ZonedDateTime.now());
-    }
-
+    // existence check and put are a single step (atomic with a concurrent repository)
     accountRepository.getEntities()
-        .put(account.getIban(), account);
+        .compute(account.getIban(), (iban, existing) -> {
+          if (existing != null) {
+            account.setUpdatedAt(ZonedDateTime.now());
+          }
+
+          return account;
+        });
     // critical section - end
 
     return account;
   }
 
+  @Override
+  public boolean saveIfAbsent(Account account) {
+    // validations
+    if (account == null) {
+      throw new IllegalArgumentException("Account not valid!");
+    }
+
+    // generate and assign an IBAN if not already set.
+    if ((account.getIban() == null) || account.getIban().isBlank()) {
+      account.setIban(ValueUtil.generateIban());
+    }
+
+    // critical section - begin
+    return accountRepository.getEntities()
+        .putIfAbsent(account.getIban(), account) == null;
+    // critical section - end
+  }
+
   @Override
   public Optional<Account> retrieveByID(String iban) {
     // validations
@@ -64,18 +94,37 @@ public class AccountDao implements IAccountDao {
   }
 
   @Override
-  public void deleteByID(String iban) {
+  public Optional<Account> updateIfPresent(String iban, UnaryOperator<Account> update) {
     // validations
     if ((iban == null) || iban.isBlank()) {
       throw new IllegalArgumentException("IBAN not valid!");
     }
 
-    // No need to delete account if IBAN doesn't exist
-    if (!accountRepository.getEntities().containsKey(iban)) {
-      return;
+    if (update == null) {
+      throw new IllegalArgumentException("Update not valid!");
+    }
+
+    // critical section - begin
+    Account account = accountRepository.getEntities()
+        .computeIfPresent(iban, (id, existing) -> {
+          Account updated = update.apply(existing);
+          updated.setUpdatedAt(ZonedDateTime.now());
+          return updated;
+        });
+    // critical section - end
+
+    return Optional.ofNullable(account);
+  }
+
+  @Override
+  public void deleteByID(String iban) {
+    // validations
+    if ((iban == null) || iban.isBlank()) {
+      throw new IllegalArgumentException("IBAN not valid!");
     }
 
     // critical section - begin
+    // removing a missing IBAN is a no-op, no separate existence check
     accountRepository.getEntities().remove(iban);
     // critical section - end
   }
@@ -0,0 +1,527 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.dao.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.IbanCodec;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
+
+// Account table without an object per account (struct of arrays)
+// 1) Storage:
+// - Every account is a row in parallel primitive arrays: IBAN (two longs, see IbanCodec), balance, version, timestamps.
+// - An open-addressing int table maps the IBAN hash to the row, there is no String, Account or map node per account.
+// 2) Locking (StampedLock):
+// - Inserts, deletes and growth change the structure and take the write lock.
+// - Lookups read optimistically without any lock write, and retry under the read lock if the structure changed meanwhile.
+// - In-place saves of existing rows take the read lock, so they run in parallel.
+// - Concurrent saves of the same account still need the service-level locks, like with AccountDao.
+// - The lock is not reentrant: the update of updateIfPresent must not call this DAO.
+// 3) Row versions (seqlock):
+// - A row writer moves the row version from even to odd with CAS, writes the fields and publishes the next even version.
+// - Readers, optimistic or under the read lock, retry until they read the same even version before and after the fields,
+//   so an in-place save is never seen half written (e.g. the new balance with the old updatedAt).
+// - The CAS also serializes two saves of the same row which are not guarded by a service-level lock.
+// 4) API:
+// - Implements IAccountDao, Account objects are created on retrieval and written back on save.
+// - Unlike AccountDao, two retrievals of the same account return two detached copies, so the services reject transfers
+//   to the same account instead of saving two copies of it.
+public class PrimitiveAccountDao implements IAccountDao {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  // table entries: 0 = empty, -1 = deleted, otherwise row + 1
+  private static final int EMPTY = 0;
+  private static final int DELETED = -1;
+
+  // element access of the versions array, for the row seqlock
+  private static final VarHandle VERSION = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private final StampedLock lock = new StampedLock();
+
+  private final ZoneId zone = ZoneId.systemDefault();
+
+  // rows
+  private long[] ibanHigh;
+  private long[] ibanLow;
+  private double[] balances;
+  // even: stable, odd: being written
+  private long[] versions;
+  private long[] createdAt;
+  private long[] updatedAt;
+  private int rowCount;
+
+  // rows freed by deletes, reused by inserts
+  private int[] freeRows = new int[DEFAULT_CAPACITY];
+  private int freeRowCount;
+
+  // open-addressing table, at most half full including deleted entries
+  private int[] table;
+  private int used;
+
+  public PrimitiveAccountDao() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public PrimitiveAccountDao(int expectedAccounts) {
+    if (expectedAccounts < 0) {
+      throw new IllegalArgumentException("Expected account count not valid!");
+    }
+
+    int rows = Math.max(DEFAULT_CAPACITY, expectedAccounts);
+
+    this.ibanHigh = new long[rows];
+    this.ibanLow = new long[rows];
+    this.balances = new double[rows];
+    this.versions = new long[rows];
+    this.createdAt = new long[rows];
+    this.updatedAt = new long[rows];
+    this.table = new int[tableCapacity(rows)];
+  }
+
+  @Override
+  public Account save(Account account) {
+    // validations
+    if (account == null) {
+      throw new IllegalArgumentException("Account not valid!");
+    }
+
+    // generate and assign an IBAN if not already set.
+    if ((account.getIban() == null) || account.getIban().isBlank()) {
+      account.setIban(ValueUtil.generateIban());
+    }
+
+    long high = IbanCodec.encodeHigh(account.getIban());
+    long low = IbanCodec.encodeLow(account.getIban());
+
+    // existing row: in-place update
+    long stamp = lock.readLock();
+
+    try {
+      int row = find(high, low);
+
+      if (row >= 0) {
+        account.setUpdatedAt(ZonedDateTime.now());
+        write(row, account);
+        return account;
+      }
+
+    } finally {
+      lock.unlockRead(stamp);
+    }
+
+    stamp = lock.writeLock();
+
+    try {
+      int row = find(high, low);
+
+      if (row >= 0) {
+        account.setUpdatedAt(ZonedDateTime.now());
+        write(row, account);
+      } else {
+        insert(high, low, account);
+      }
+
+      return account;
+
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean saveIfAbsent(Account account) {
+    // validations
+    if (account == null) {
+      throw new IllegalArgumentException("Account not valid!");
+    }
+
+    // generate and assign an IBAN if not already set.
+    if ((account.getIban() == null) || account.getIban().isBlank()) {
+      account.setIban(ValueUtil.generateIban());
+    }
+
+    long high = IbanCodec.encodeHigh(account.getIban());
+    long low = IbanCodec.encodeLow(account.getIban());
+
+    long stamp = lock.writeLock();
+
+    try {
+      if (find(high, low) >= 0) {
+        return false;
+      }
+
+      insert(high, low, account);
+      return true;
+
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public Optional<Account> retrieveByID(String iban) {
+    // validations
+    if ((iban == null) || iban.isBlank()) {
+      throw new IllegalArgumentException("IBAN not valid!");
+    }
+
+    long high = IbanCodec.encodeHigh(iban);
+    long low = IbanCodec.encodeLow(iban);
+
+    long stamp = lock.tryOptimisticRead();
+
+    try {
+      int row = find(high, low);
+      Account account = (row >= 0) ? read(row, iban) : null;
+
+      if (lock.validate(stamp)) {
+        return Optional.ofNullable(account);
+      }
+
+    } catch (RuntimeException e) {
+      // arrays replaced meanwhile, validation fails below
+    }
+
+    stamp = lock.readLock();
+
+    try {
+      int row = find(high, low);
+
+      return (row >= 0) ? Optional.of(read(row, iban)) : Optional.empty();
+
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public List<Account> retrieveAll() {
+    long stamp = lock.readLock();
+
+    try {
+      List<Account> accounts = new ArrayList<>(rowCount - freeRowCount);
+
+      for (int entry : table) {
+        if (entry > 0) {
+          int row = entry - 1;
+          accounts.add(read(row, IbanCodec.decode(ibanHigh[row], ibanLow[row])));
+        }
+      }
+
+      return accounts;
+
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Optional<Account> updateIfPresent(String iban, UnaryOperator<Account> update) {
+    // validations
+    if ((iban == null) || iban.isBlank()) {
+      throw new IllegalArgumentException("IBAN not valid!");
+    }
+
+    if (update == null) {
+      throw new IllegalArgumentException("Update not valid!");
+    }
+
+    long high = IbanCodec.encodeHigh(iban);
+    long low = IbanCodec.encodeLow(iban);
+
+    // exclusive, so the read-modify-write of the row is a single step
+    long stamp = lock.writeLock();
+
+    try {
+      int row = find(high, low);
+
+      if (row < 0) {
+        return Optional.empty();
+      }
+
+      Account updated = update.apply(read(row, iban));
+      updated.setUpdatedAt(ZonedDateTime.now());
+      write(row, updated);
+
+      return Optional.of(updated);
+
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void deleteByID(String iban) {
+    // validations
+    if ((iban == null) || iban.isBlank()) {
+      throw new IllegalArgumentException("IBAN not valid!");
+    }
+
+    long high = IbanCodec.encodeHigh(iban);
+    long low = IbanCodec.encodeLow(iban);
+
+    long stamp = lock.writeLock();
+
+    try {
+      int slot = slotOf(high, low);
+
+      if (slot < 0) {
+        return;
+      }
+
+      int row = table[slot] - 1;
+      table[slot] = DELETED;
+
+      if (freeRowCount == freeRows.length) {
+        freeRows = Arrays.copyOf(freeRows, freeRowCount * 2);
+      }
+
+      freeRows[freeRowCount++] = row;
+
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean checkExistByID(String iban) {
+    // validations
+    if ((iban == null) || iban.isBlank()) {
+      throw new IllegalArgumentException("IBAN not valid!");
+    }
+
+    long high = IbanCodec.encodeHigh(iban);
+    long low = IbanCodec.encodeLow(iban);
+
+    // only the IBAN columns and the table are read, in-place saves never change them
+    long stamp = lock.tryOptimisticRead();
+
+    try {
+      boolean exists = find(high, low) >= 0;
+
+      if (lock.validate(stamp)) {
+        return exists;
+      }
+
+    } catch (RuntimeException e) {
+      // arrays replaced meanwhile, validation fails below
+    }
+
+    stamp = lock.readLock();
+
+    try {
+      return find(high, low) >= 0;
+
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  public int size() {
+    long stamp = lock.readLock();
+
+    try {
+      return rowCount - freeRowCount;
+
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  // bytes used by the arrays
+  public long footprint() {
+    long stamp = lock.readLock();
+
+    try {
+      long rowBytes = (5L * Long.BYTES) + Double.BYTES;
+
+      return (ibanHigh.length * rowBytes) + ((long) table.length * Integer.BYTES) + ((long) freeRows.length * Integer.BYTES);
+
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  // must hold the write lock
+  private void insert(long high, long low, Account account) {
+    if (((used + 1) * 2L) > table.length) {
+      rehash();
+    }
+
+    int row;
+
+    if (freeRowCount > 0) {
+      row = freeRows[--freeRowCount];
+
+    } else {
+      if (rowCount == ibanHigh.length) {
+        growRows();
+      }
+
+      row = rowCount++;
+    }
+
+    // the version of a reused row keeps counting, it is never reset
+    ibanHigh[row] = high;
+    ibanLow[row] = low;
+    write(row, account);
+
+    int slot = hash(high, low) & (table.length - 1);
+
+    // deleted entries are not reused here, rehash() removes them
+    while (table[slot] != EMPTY) {
+      slot = (slot + 1) & (table.length - 1);
+    }
+
+    table[slot] = row + 1;
+    used++;
+  }
+
+  private int find(long high, long low) {
+    int slot = slotOf(high, low);
+
+    return (slot < 0) ? -1 : (table[slot] - 1);
+  }
+
+  // table slot of the IBAN, -1 if not found
+  private int slotOf(long high, long low) {
+    int mask = table.length - 1;
+    int slot = hash(high, low) & mask;
+
+    while (true) {
+      int entry = table[slot];
+
+      if (entry == EMPTY) {
+        return -1;
+      }
+
+      if ((entry > 0) && (ibanHigh[entry - 1] == high) && (ibanLow[entry - 1] == low)) {
+        return slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  // the caller's IBAN is reused instead of decoding the row's
+  private Account read(int row, String iban) {
+    long[] rowVersions = versions;
+
+    while (true) {
+      long version = (long) VERSION.getAcquire(rowVersions, row);
+
+      if ((version & 1) == 0) {
+        double balance = balances[row];
+        long created = createdAt[row];
+        long updated = updatedAt[row];
+
+        // the field reads above are not moved after the version check
+        VarHandle.acquireFence();
+
+        if ((long) VERSION.getVolatile(rowVersions, row) == version) {
+          return Account.builder()
+              .iban(iban)
+              .balance(balance)
+              .createdAt(toDateTime(created))
+              .updatedAt(toDateTime(updated))
+              .build();
+        }
+      }
+
+      // a writer is in the row
+      Thread.onSpinWait();
+    }
+  }
+
+  private void write(int row, Account account) {
+    long[] rowVersions = versions;
+    long version;
+
+    // odd version: claims the row, another writer of the same row waits here
+    while (true) {
+      version = (long) VERSION.getVolatile(rowVersions, row);
+
+      if (((version & 1) == 0) && VERSION.compareAndSet(rowVersions, row, version, version + 1)) {
+        break;
+      }
+
+      Thread.onSpinWait();
+    }
+
+    balances[row] = account.getBalance();
+    createdAt[row] = toMillis(account.getCreatedAt());
+    updatedAt[row] = toMillis(account.getUpdatedAt());
+
+    // even version: publishes the fields
+    VERSION.setRelease(rowVersions, row, version + 2);
+  }
+
+  private void growRows() {
+    int capacity = ibanHigh.length * 2;
+
+    ibanHigh = Arrays.copyOf(ibanHigh, capacity);
+    ibanLow = Arrays.copyOf(ibanLow, capacity);
+    balances = Arrays.copyOf(balances, capacity);
+    versions = Arrays.copyOf(versions, capacity);
+    createdAt = Arrays.copyOf(createdAt, capacity);
+    updatedAt = Arrays.copyOf(updatedAt, capacity);
+  }
+
+  // rebuilds the table without deleted entries, doubles it if the live entries need it
+  private void rehash() {
+    int live = rowCount - freeRowCount;
+    int capacity = tableCapacity(live + 1);
+
+    int[] old = table;
+    table = new int[Math.max(capacity, old.length)];
+    used = 0;
+
+    for (int entry : old) {
+      if (entry > 0) {
+        int slot = hash(ibanHigh[entry - 1], ibanLow[entry - 1]) & (table.length - 1);
+
+        while (table[slot] != EMPTY) {
+          slot = (slot + 1) & (table.length - 1);
+        }
+
+        table[slot] = entry;
+        used++;
+      }
+    }
+  }
+
+  private ZonedDateTime toDateTime(long millis) {
+    return (millis == Long.MIN_VALUE) ? null : ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+  }
+
+  // Long.MIN_VALUE stands for a missing timestamp
+  private static long toMillis(ZonedDateTime dateTime) {
+    return (dateTime == null) ? Long.MIN_VALUE : dateTime.toInstant().toEpochMilli();
+  }
+
+  // power of two, at least twice the rows
+  private static int tableCapacity(int rows) {
+    int capacity = Integer.highestOneBit(Math.max(2, rows) * 2 - 1) << 1;
+    return Math.max(DEFAULT_CAPACITY, capacity);
+  }
+
+  // murmur3 finalizer over both halves
+  private static int hash(long high, long low) {
+    long h = (high * 0x9E3779B97F4A7C15L) ^ low;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+}
@@ -0,0 +1,16 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.model.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+public class TransferDto {
+
+  private String ibanFrom;
+  private String ibanTo;
+  private double amount;
+
+}
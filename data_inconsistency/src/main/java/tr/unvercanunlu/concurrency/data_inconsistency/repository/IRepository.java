@@ -7,6 +7,15 @@ import lombok.Getter;
 @Getter
 public abstract class IRepository<T, E> {
 
-  private final Map<T, E> entities = new HashMap<>();
+  private final Map<T, E> entities;
+
+  protected IRepository() {
+    this(new HashMap<>());
+  }
+
+  // backing map decides the thread-safety of the repository itself
+  protected IRepository(Map<T, E> entities) {
+    this.entities = entities;
+  }
 
 }
@@ -0,0 +1,19 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.repository.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
+import tr.unvercanunlu.concurrency.data_inconsistency.repository.IRepository;
+
+// Repository backed by ConcurrentHashMap
+// - Reads are lock-free, writes lock only a single bin, resizing is shared between writers.
+// - putIfAbsent/compute/computeIfPresent are atomic per key, so the map itself is never corrupted without a service-level lock.
+// - Balances still need the service-level locks, the map does not make read-modify-write of an account atomic.
+@Getter
+public class ConcurrentAccountRepository extends IRepository<String, Account> {
+
+  public ConcurrentAccountRepository() {
+    super(new ConcurrentHashMap<>());
+  }
+
+}
@@ -0,0 +1,13 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.service;
+
+import java.util.List;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
+
+// services which can apply several transfers atomically, implemented by the services built on locks
+public interface IBatchTransferAccountService extends IAccountService {
+
+  // all transfers are applied together or none of them, returns the involved accounts
+  List<AccountDto> transferBatch(List<TransferDto> transfers);
+
+}
@@ -1,6 +1,8 @@
 package tr.unvercanunlu.concurrency.data_inconsistency.service.impl;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -9,8 +11,11 @@ import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
-import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.IbanCodec;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.TransferUtil;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValidateUtil;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 
@@ -26,9 +31,9 @@ import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 // - Automatically removes locks after an account is deleted to free up resources.
 // 4) Deadlock Prevention:
 // - Implements tryLock with a timeout in close() to avoid indefinite waiting on a lock.
-// - Acquires locks in a consistent order (transfer(): locks ibanFrom first, then ibanTo)
+// - Acquires locks in a consistent global order: transfer() and transferBatch() lock accounts by encoded IBAN, so A->B and B->A cannot deadlock.
 @RequiredArgsConstructor
-public class AccountLockAccountService implements IAccountService {
+public class AccountLockAccountService implements IBatchTransferAccountService {
 
   // dao
   private final IAccountDao accountDao;
@@ -225,15 +230,19 @@ public class AccountLockAccountService implements IAccountService {
     // validation
     ValidateUtil.validateIban(ibanFrom);
     ValidateUtil.validateIban(ibanTo);
+    ValidateUtil.validateDifferentIbans(ibanFrom, ibanTo);
     ValidateUtil.validateAmount(amount);
 
     // get lock
-    ReentrantLock lockFrom = getOrCreateLock(ibanFrom);
-    ReentrantLock lockTo = getOrCreateLock(ibanTo);
+    // lower encoded IBAN first, every thread takes the same two locks in the same order
+    boolean fromFirst = IbanCodec.compare(ibanFrom, ibanTo) <= 0;
+
+    ReentrantLock lockFirst = getOrCreateLock(fromFirst ? ibanFrom : ibanTo);
+    ReentrantLock lockSecond = getOrCreateLock(fromFirst ? ibanTo : ibanFrom);
 
     // lock for operation
-    lockFrom.lock();
-    lockTo.lock();
+    lockFirst.lock();
+    lockSecond.lock();
 
     Account entityFrom = null;
     Account entityTo = null;
@@ -268,14 +277,56 @@ public class AccountLockAccountService implements IAccountService {
 
     } finally {
       // unlock for operation
-      lockFrom.unlock();
-      lockTo.unlock();
+      lockSecond.unlock();
+      lockFirst.unlock();
     }
 
     // mapping
     return accountEntityDtoMapper.apply(entityFrom);
   }
 
+  @Override
+  public List<AccountDto> transferBatch(List<TransferDto> transfers) {
+    // validation
+    TransferUtil.validateTransfers(transfers);
+
+    // get lock
+    // all involved accounts, in the same global order as transfer()
+    List<ReentrantLock> locks = new ArrayList<>();
+
+    for (String iban : TransferUtil.lockOrder(transfers)) {
+      locks.add(getOrCreateLock(iban));
+    }
+
+    int locked = 0;
+
+    List<Account> entities;
+
+    try {
+      // lock for operation
+      for (ReentrantLock lock : locks) {
+        lock.lock();
+        locked++;
+      }
+
+      // critical section - begin
+      // operation
+      entities = TransferUtil.applyTransfers(accountDao, transfers);
+      // critical section - end
+
+    } finally {
+      // unlock for operation
+      for (int i = locked - 1; i >= 0; i--) {
+        locks.get(i).unlock();
+      }
+    }
+
+    // mapping
+    return entities.stream()
+        .map(accountEntityDtoMapper)
+        .toList();
+  }
+
   private ReentrantLock getOrCreateLock(String iban) {
     // validation
     if ((iban == null) || iban.isBlank()) {
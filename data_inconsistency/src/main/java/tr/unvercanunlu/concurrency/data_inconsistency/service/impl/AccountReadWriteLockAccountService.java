@@ -1,6 +1,8 @@
 package tr.unvercanunlu.concurrency.data_inconsistency.service.impl;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -9,8 +11,11 @@ import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
-import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.IbanCodec;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.TransferUtil;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValidateUtil;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 
@@ -29,7 +34,7 @@ import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 // - Locks are stored in a thread-safe ConcurrentHashMap to ensure per-account locking.
 // - After account deletion, the corresponding lock is removed to free resources.
 @RequiredArgsConstructor
-public class AccountReadWriteLockAccountService implements IAccountService {
+public class AccountReadWriteLockAccountService implements IBatchTransferAccountService {
 
   // dao
   private final IAccountDao accountDao;
@@ -226,17 +231,20 @@ public class AccountReadWriteLockAccountService implements IAccountService {
     // validation
     ValidateUtil.validateIban(ibanFrom);
     ValidateUtil.validateIban(ibanTo);
+    ValidateUtil.validateDifferentIbans(ibanFrom, ibanTo);
     ValidateUtil.validateAmount(amount);
 
     // get lock
-    ReentrantReadWriteLock lockFrom = getOrCreateLock(ibanFrom);
-    ReentrantReadWriteLock lockTo = getOrCreateLock(ibanTo);
+    // lower encoded IBAN first, every thread takes the same two locks in the same order
+    boolean fromFirst = IbanCodec.compare(ibanFrom, ibanTo) <= 0;
 
-    // lock for write and read operation
-    lockFrom.writeLock().lock();
-    lockFrom.readLock().lock();
-    lockTo.writeLock().lock();
-    lockTo.readLock().lock();
+    ReentrantReadWriteLock lockFirst = getOrCreateLock(fromFirst ? ibanFrom : ibanTo);
+    ReentrantReadWriteLock lockSecond = getOrCreateLock(fromFirst ? ibanTo : ibanFrom);
+
+    // lock for write operation
+    // the write lock already excludes readers, no read lock is needed
+    lockFirst.writeLock().lock();
+    lockSecond.writeLock().lock();
 
     Account entityFrom = null;
     Account entityTo = null;
@@ -269,17 +277,57 @@ public class AccountReadWriteLockAccountService implements IAccountService {
       // critical section - end
 
     } finally {
-      // unlock for write and read operation
-      lockFrom.writeLock().unlock();
-      lockFrom.readLock().unlock();
-      lockTo.writeLock().unlock();
-      lockTo.readLock().unlock();
+      // unlock for write operation
+      lockSecond.writeLock().unlock();
+      lockFirst.writeLock().unlock();
     }
 
     // mapping
     return accountEntityDtoMapper.apply(entityFrom);
   }
 
+  @Override
+  public List<AccountDto> transferBatch(List<TransferDto> transfers) {
+    // validation
+    TransferUtil.validateTransfers(transfers);
+
+    // get lock
+    // all involved accounts, in the same global order as transfer()
+    List<ReentrantReadWriteLock> locks = new ArrayList<>();
+
+    for (String iban : TransferUtil.lockOrder(transfers)) {
+      locks.add(getOrCreateLock(iban));
+    }
+
+    int locked = 0;
+
+    List<Account> entities;
+
+    try {
+      // lock for write operation
+      for (ReentrantReadWriteLock lock : locks) {
+        lock.writeLock().lock();
+        locked++;
+      }
+
+      // critical section - begin
+      // operation
+      entities = TransferUtil.applyTransfers(accountDao, transfers);
+      // critical section - end
+
+    } finally {
+      // unlock for write operation
+      for (int i = locked - 1; i >= 0; i--) {
+        locks.get(i).writeLock().unlock();
+      }
+    }
+
+    // mapping
+    return entities.stream()
+        .map(accountEntityDtoMapper)
+        .toList();
+  }
+
   private ReentrantReadWriteLock getOrCreateLock(String iban) {
     // validation
     if ((iban == null) || iban.isBlank()) {
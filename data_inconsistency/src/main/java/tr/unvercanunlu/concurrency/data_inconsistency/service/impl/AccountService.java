@@ -1,18 +1,21 @@
 package tr.unvercanunlu.concurrency.data_inconsistency.service.impl;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
-import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.TransferUtil;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValidateUtil;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 
 @RequiredArgsConstructor
-public class AccountService implements IAccountService {
+public class AccountService implements IBatchTransferAccountService {
 
   // dao
   private final IAccountDao accountDao;
@@ -121,6 +124,7 @@ public class AccountService implements IAccountService {
     // validation
     ValidateUtil.validateIban(ibanFrom);
     ValidateUtil.validateIban(ibanTo);
+    ValidateUtil.validateDifferentIbans(ibanFrom, ibanTo);
     ValidateUtil.validateAmount(amount);
 
     // critical section - begin
@@ -152,4 +156,20 @@ public class AccountService implements IAccountService {
     return accountEntityDtoMapper.apply(entityFrom);
   }
 
+  @Override
+  public List<AccountDto> transferBatch(List<TransferDto> transfers) {
+    // validation
+    TransferUtil.validateTransfers(transfers);
+
+    // critical section - begin
+    // operation
+    List<Account> entities = TransferUtil.applyTransfers(accountDao, transfers);
+    // critical section - end
+
+    // mapping
+    return entities.stream()
+        .map(accountEntityDtoMapper)
+        .toList();
+  }
+
 }
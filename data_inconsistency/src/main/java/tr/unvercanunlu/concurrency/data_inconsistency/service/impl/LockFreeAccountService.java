@@ -0,0 +1,239 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.service.impl;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import tr.unvercanunlu.concurrency.data_inconsistency.config.Config;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValidateUtil;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
+
+// Solution: Lock-Free Balances
+// 1) Fixed-Point Balances:
+// - Each balance is a long of minor units (cents) in its own AtomicLong cell, no double rounding drift.
+// - The dao only records that the account exists (saved on open, deleted on close); its balance stays 0 and is not maintained.
+// - The cell is the only source of truth for the balance, writing it back without locks could store an older balance over a newer one.
+// 2) No Locks:
+// - Deposit is a CAS loop that rejects a closed cell and a balance that would overflow.
+// - Withdraw is a CAS loop that re-checks the balance on every attempt, so it never goes below zero.
+// - Threads working on the same account never park, they only retry a failed CAS.
+// 3) Transfer:
+// - Withdraw from the source first, then deposit to the destination.
+// - If the destination is missing or closed, the amount is refunded to the source with the same CAS loop as a deposit.
+// - If the source is closed meanwhile too, the refund fails like any operation on a closed account.
+// - Money is never created, but another thread may see it in flight between the two accounts.
+// - Batch transfers are not offered (no IBatchTransferAccountService), several cells cannot be changed in one atomic step without locks.
+// 4) Close:
+// - The cell is swapped to a negative marker, later operations on a stale cell see it and fail.
+@RequiredArgsConstructor
+public class LockFreeAccountService implements IAccountService {
+
+  // marks the cell of a closed account, deposits and withdrawals reject a negative cell, so it never changes again
+  private static final long CLOSED = Long.MIN_VALUE;
+
+  // dao
+  private final IAccountDao accountDao;
+
+  // balance cells in minor units
+  private final ConcurrentHashMap<String, AtomicLong> balances = new ConcurrentHashMap<>();
+
+  @Override
+  public AccountDto open() {
+    Account entity = Account.builder()
+        .iban(ValueUtil.generateIban())
+        .balance(0)
+        .createdAt(ZonedDateTime.now())
+        .build();
+
+    // operation
+    entity = accountDao.save(entity);
+
+    balances.put(entity.getIban(), new AtomicLong(0));
+
+    // mapping
+    return toDto(entity.getIban(), 0);
+  }
+
+  @Override
+  public void close(String iban) {
+    // validation
+    ValidateUtil.validateIban(iban);
+
+    AtomicLong balance = balances.remove(iban);
+
+    if (balance != null) {
+      // threads still holding the cell fail from now on
+      balance.set(CLOSED);
+    }
+
+    // operation
+    accountDao.deleteByID(iban);
+  }
+
+  @Override
+  public AccountDto get(String iban) {
+    // validation
+    ValidateUtil.validateIban(iban);
+
+    long balance = getCell(iban).get();
+
+    // validation
+    if (balance < 0) {
+      throw new RuntimeException("Account not found!");
+    }
+
+    // mapping
+    return toDto(iban, balance);
+  }
+
+  @Override
+  public AccountDto withdraw(String iban, double amount) {
+    // validation
+    ValidateUtil.validateIban(iban);
+    ValidateUtil.validateAmount(amount);
+
+    long balance = withdraw(getCell(iban), toMinorUnits(amount));
+
+    // mapping
+    return toDto(iban, balance);
+  }
+
+  @Override
+  public AccountDto deposit(String iban, double amount) {
+    // validation
+    ValidateUtil.validateIban(iban);
+    ValidateUtil.validateAmount(amount);
+
+    long balance = deposit(getCell(iban), toMinorUnits(amount));
+
+    // mapping
+    return toDto(iban, balance);
+  }
+
+  @Override
+  public AccountDto transfer(String ibanFrom, String ibanTo, double amount) {
+    // validation
+    ValidateUtil.validateIban(ibanFrom);
+    ValidateUtil.validateIban(ibanTo);
+    ValidateUtil.validateDifferentIbans(ibanFrom, ibanTo);
+    ValidateUtil.validateAmount(amount);
+
+    long minorUnits = toMinorUnits(amount);
+
+    AtomicLong cellFrom = getCell(ibanFrom);
+    AtomicLong cellTo = balances.get(ibanTo);
+
+    // operation
+    long balanceFrom = withdraw(cellFrom, minorUnits);
+
+    try {
+      // operation
+      if (cellTo == null) {
+        throw new RuntimeException("Account not found!");
+      }
+
+      deposit(cellTo, minorUnits);
+
+    } catch (RuntimeException e) {
+      // compensation: give the amount back to the source
+      try {
+        deposit(cellFrom, minorUnits);
+
+      } catch (RuntimeException refundException) {
+        e.addSuppressed(refundException);
+      }
+
+      throw e;
+    }
+
+    // mapping
+    return toDto(ibanFrom, balanceFrom);
+  }
+
+  private AtomicLong getCell(String iban) {
+    AtomicLong cell = balances.get(iban);
+
+    if (cell == null) {
+      throw new RuntimeException("Account not found!");
+    }
+
+    return cell;
+  }
+
+  private long deposit(AtomicLong cell, long minorUnits) {
+    long current = cell.get();
+
+    while (true) {
+      // validation
+      if (current < 0) {
+        throw new RuntimeException("Account not found!");
+      }
+
+      // validation
+      if (current > Long.MAX_VALUE - minorUnits) {
+        throw new RuntimeException("Amount not valid: balance would overflow!");
+      }
+
+      long witness = cell.compareAndExchange(current, current + minorUnits);
+
+      if (witness == current) {
+        return current + minorUnits;
+      }
+
+      // lost the race, retry with the value that won
+      current = witness;
+    }
+  }
+
+  private long withdraw(AtomicLong cell, long minorUnits) {
+    long current = cell.get();
+
+    while (true) {
+      // validation
+      if (current < 0) {
+        throw new RuntimeException("Account not found!");
+      }
+
+      if (current < minorUnits) {
+        throw new RuntimeException("Amount not valid: Amount is not enough!");
+      }
+
+      long witness = cell.compareAndExchange(current, current - minorUnits);
+
+      if (witness == current) {
+        return current - minorUnits;
+      }
+
+      // lost the race, retry with the value that won
+      current = witness;
+    }
+  }
+
+  private static long toMinorUnits(double amount) {
+    // validation
+    if (amount > (double) Long.MAX_VALUE / Config.MINOR_UNITS_PER_UNIT) {
+      throw new RuntimeException("Amount not valid: amount is too large!");
+    }
+
+    long minorUnits = Math.round(amount * Config.MINOR_UNITS_PER_UNIT);
+
+    // validation
+    if (minorUnits == 0) {
+      throw new RuntimeException("Amount not valid: amount is smaller than one minor unit!");
+    }
+
+    return minorUnits;
+  }
+
+  private static AccountDto toDto(String iban, long minorUnits) {
+    return AccountDto.builder()
+        .iban(iban)
+        .balance((double) minorUnits / Config.MINOR_UNITS_PER_UNIT)
+        .build();
+  }
+
+}
@@ -1,14 +1,17 @@
 package tr.unvercanunlu.concurrency.data_inconsistency.service.impl;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
-import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.TransferUtil;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValidateUtil;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 
@@ -24,7 +27,7 @@ import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 // - Single global lock means only one thread can do operation at a time
 // - When multiple threads attempt doing operation, they must wait for each other, even for different accounts
 @RequiredArgsConstructor
-public class SingleGlobalLockAccountService implements IAccountService {
+public class SingleGlobalLockAccountService implements IBatchTransferAccountService {
 
   // dao
   private final IAccountDao accountDao;
@@ -192,6 +195,7 @@ public class SingleGlobalLockAccountService implements IAccountService {
     // validation
     ValidateUtil.validateIban(ibanFrom);
     ValidateUtil.validateIban(ibanTo);
+    ValidateUtil.validateDifferentIbans(ibanFrom, ibanTo);
     ValidateUtil.validateAmount(amount);
 
     // lock for operation
@@ -236,4 +240,32 @@ public class SingleGlobalLockAccountService implements IAccountService {
     return accountEntityDtoMapper.apply(entityFrom);
   }
 
+  @Override
+  public List<AccountDto> transferBatch(List<TransferDto> transfers) {
+    // validation
+    TransferUtil.validateTransfers(transfers);
+
+    // lock for operation
+    lock.lock();
+
+    List<Account> entities;
+
+    try {
+
+      // critical section - begin
+      // operation
+      entities = TransferUtil.applyTransfers(accountDao, transfers);
+      // critical section - end
+
+    } finally {
+      // unlock for operation
+      lock.unlock();
+    }
+
+    // mapping
+    return entities.stream()
+        .map(accountEntityDtoMapper)
+        .toList();
+  }
+
 }
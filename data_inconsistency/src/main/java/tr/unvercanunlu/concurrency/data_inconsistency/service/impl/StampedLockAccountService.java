@@ -0,0 +1,368 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.service.impl;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.IbanCodec;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.TransferUtil;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValidateUtil;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
+
+// Solution: Account-Level Stamped Locks
+// 1) Optimistic Reads:
+// - get() reads the balance without taking a lock, then validates the stamp.
+// - A valid stamp proves no write happened in between, the read never writes to shared lock state.
+// - Only when a write overlapped, get() falls back to a read lock.
+// 2) Writes:
+// - deposit(), withdraw() and transfer() take the write lock, like the read-write lock service.
+// 3) Not Reentrant:
+// - A StampedLock cannot be locked twice by the same thread, transfers to the same account are rejected before locking.
+// 4) Deadlock Prevention:
+// - transfer() and transferBatch() lock accounts by encoded IBAN, the same global order as the other services.
+// - close() waits for the write lock with a timeout and removes the lock after deletion.
+@RequiredArgsConstructor
+public class StampedLockAccountService implements IBatchTransferAccountService {
+
+  // dao
+  private final IAccountDao accountDao;
+
+  // entity to dto mapper
+  private final Function<Account, AccountDto> accountEntityDtoMapper =
+      entity -> Optional.ofNullable(entity)
+          .map(e -> AccountDto.builder()
+              .iban(e.getIban())
+              .balance(e.getBalance())
+              .build())
+          .orElse(null);
+
+  // thread-safe storage for account-level stamped locks
+  private final ConcurrentHashMap<String, StampedLock> accountLocks = new ConcurrentHashMap<>();
+
+  @Override
+  public AccountDto open() {
+    Account entity = Account.builder()
+        .iban(ValueUtil.generateIban())
+        .balance(0)
+        .createdAt(ZonedDateTime.now())
+        .build();
+
+    // get lock
+    StampedLock lock = getOrCreateLock(entity.getIban());
+
+    // lock for write operation
+    long stamp = lock.writeLock();
+
+    try {
+
+      // critical section - begin
+      // operation
+      entity = accountDao.save(entity);
+      // critical section - end
+
+    } finally {
+      // unlock for write operation
+      lock.unlockWrite(stamp);
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entity);
+  }
+
+  @Override
+  public void close(String iban) {
+    // validation
+    ValidateUtil.validateIban(iban);
+
+    // get lock
+    StampedLock lock = getOrCreateLock(iban);
+
+    try {
+      // lock for write operation with timeout
+      // prevents deadlock: another thread may still wait on a lock that was removed, a timeout avoids indefinite waiting.
+      long stamp = lock.tryWriteLock(1, TimeUnit.SECONDS);
+
+      if (stamp == 0) {
+        throw new RuntimeException("Failed to get write lock for deletion!");
+      }
+
+      try {
+
+        // critical section - begin
+        // operation
+        accountDao.deleteByID(iban);
+        // critical section - end
+
+      } finally {
+        // unlock for write operation
+        lock.unlockWrite(stamp);
+
+        // remove lock for deleted account
+        accountLocks.remove(iban, lock);
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Thread interrupted while deleting account!", e);
+    }
+  }
+
+  @Override
+  public AccountDto get(String iban) {
+    // validation
+    ValidateUtil.validateIban(iban);
+
+    // get lock
+    StampedLock lock = getOrCreateLock(iban);
+
+    // optimistic read, no write to the lock state
+    long stamp = lock.tryOptimisticRead();
+
+    if (stamp != 0) {
+      // operation
+      // fields are copied before validation, the entity may change right after
+      Optional<Account> entity = accountDao.retrieveByID(iban);
+      double balance = entity.map(Account::getBalance).orElse(0d);
+
+      if (lock.validate(stamp)) {
+        entity.orElseThrow(() -> new RuntimeException("Account not found!"));
+
+        // mapping
+        return AccountDto.builder()
+            .iban(iban)
+            .balance(balance)
+            .build();
+      }
+    }
+
+    // a write overlapped: lock for read operation
+    stamp = lock.readLock();
+
+    Account entity = null;
+
+    try {
+
+      // critical section - begin
+      // operation
+      entity = accountDao.retrieveByID(iban)
+          .orElseThrow(() -> new RuntimeException("Account not found!"));
+      // critical section - end
+
+    } finally {
+      // unlock for read operation
+      lock.unlockRead(stamp);
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entity);
+  }
+
+  @Override
+  public AccountDto withdraw(String iban, double amount) {
+    // validation
+    ValidateUtil.validateIban(iban);
+    ValidateUtil.validateAmount(amount);
+
+    // get lock
+    StampedLock lock = getOrCreateLock(iban);
+
+    // lock for write operation
+    long stamp = lock.writeLock();
+
+    Account entity = null;
+
+    try {
+
+      // critical section - begin
+      // operation
+      entity = accountDao.retrieveByID(iban)
+          .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+      // validation
+      if (entity.getBalance() < amount) {
+        throw new RuntimeException("Amount not valid: Amount is not enough!");
+      }
+
+      // operation
+      double newBalance = entity.getBalance() - amount;
+      entity.setBalance(newBalance);
+      entity = accountDao.save(entity);
+      // critical section - end
+
+    } finally {
+      // unlock for write operation
+      lock.unlockWrite(stamp);
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entity);
+  }
+
+  @Override
+  public AccountDto deposit(String iban, double amount) {
+    // validation
+    ValidateUtil.validateIban(iban);
+    ValidateUtil.validateAmount(amount);
+
+    // get lock
+    StampedLock lock = getOrCreateLock(iban);
+
+    // lock for write operation
+    long stamp = lock.writeLock();
+
+    Account entity = null;
+
+    try {
+
+      // critical section - begin
+      // operation
+      entity = accountDao.retrieveByID(iban)
+          .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+      // operation
+      double newBalance = entity.getBalance() + amount;
+      entity.setBalance(newBalance);
+      entity = accountDao.save(entity);
+      // critical section - end
+
+    } finally {
+      // unlock for write operation
+      lock.unlockWrite(stamp);
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entity);
+  }
+
+  @Override
+  public AccountDto transfer(String ibanFrom, String ibanTo, double amount) {
+    // validation
+    ValidateUtil.validateIban(ibanFrom);
+    ValidateUtil.validateIban(ibanTo);
+    ValidateUtil.validateDifferentIbans(ibanFrom, ibanTo);
+    ValidateUtil.validateAmount(amount);
+
+    // get lock
+    // lower encoded IBAN first, every thread takes the same two locks in the same order
+    boolean fromFirst = IbanCodec.compare(ibanFrom, ibanTo) <= 0;
+
+    StampedLock lockFirst = getOrCreateLock(fromFirst ? ibanFrom : ibanTo);
+    StampedLock lockSecond = getOrCreateLock(fromFirst ? ibanTo : ibanFrom);
+
+    // lock for write operation
+    long stampFirst = lockFirst.writeLock();
+
+    Account entityFrom = null;
+
+    try {
+
+      long stampSecond = lockSecond.writeLock();
+
+      try {
+
+        // critical section - begin
+        // operation
+        entityFrom = accountDao.retrieveByID(ibanFrom)
+            .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+        // operation
+        Account entityTo = accountDao.retrieveByID(ibanTo)
+            .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+        // validation
+        if (entityFrom.getBalance() < amount) {
+          throw new RuntimeException("Amount not valid: Amount is not enough!");
+        }
+
+        // operation
+        double newBalanceFrom = entityFrom.getBalance() - amount;
+        entityFrom.setBalance(newBalanceFrom);
+        entityFrom = accountDao.save(entityFrom);
+
+        // operation
+        double newBalanceTo = entityTo.getBalance() + amount;
+        entityTo.setBalance(newBalanceTo);
+
+        accountDao.save(entityTo);
+        // critical section - end
+
+      } finally {
+        // unlock for write operation
+        lockSecond.unlockWrite(stampSecond);
+      }
+
+    } finally {
+      // unlock for write operation
+      lockFirst.unlockWrite(stampFirst);
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entityFrom);
+  }
+
+  @Override
+  public List<AccountDto> transferBatch(List<TransferDto> transfers) {
+    // validation
+    TransferUtil.validateTransfers(transfers);
+
+    // get lock
+    // all involved accounts, in the same global order as transfer(), each account once
+    List<StampedLock> locks = new ArrayList<>();
+
+    for (String iban : TransferUtil.lockOrder(transfers)) {
+      locks.add(getOrCreateLock(iban));
+    }
+
+    long[] stamps = new long[locks.size()];
+    int locked = 0;
+
+    List<Account> entities;
+
+    try {
+      // lock for write operation
+      for (StampedLock lock : locks) {
+        stamps[locked] = lock.writeLock();
+        locked++;
+      }
+
+      // critical section - begin
+      // operation
+      entities = TransferUtil.applyTransfers(accountDao, transfers);
+      // critical section - end
+
+    } finally {
+      // unlock for write operation
+      for (int i = locked - 1; i >= 0; i--) {
+        locks.get(i).unlockWrite(stamps[i]);
+      }
+    }
+
+    // mapping
+    return entities.stream()
+        .map(accountEntityDtoMapper)
+        .toList();
+  }
+
+  private StampedLock getOrCreateLock(String iban) {
+    // validation
+    if ((iban == null) || iban.isBlank()) {
+      throw new IllegalArgumentException("IBAN not valid!");
+    }
+
+    StampedLock lock = accountLocks.get(iban);
+
+    // plain get first: the common case does not lock a map bin
+    return (lock != null) ? lock : accountLocks.computeIfAbsent(iban, id -> new StampedLock());
+  }
+
+}
@@ -0,0 +1,374 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.service.impl;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import tr.unvercanunlu.concurrency.data_inconsistency.config.Config;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.TransferUtil;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValidateUtil;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
+
+// Solution: Striped Locks
+// 1) Fixed Lock Memory:
+// - A fixed power-of-two array of locks is shared by all accounts, an IBAN hash picks its stripe.
+// - Lock memory does not grow with the account count, there is no per-account lock to create or clean up.
+// - No ConcurrentHashMap lookup per operation, the stripe is a hash and a mask.
+// 2) Spacing:
+// - The contended state of a ReentrantLock is its internal Sync object, not the lock itself, so padding the lock does not help.
+// - A spacer array is allocated after every lock, consecutive allocations keep the Sync objects of neighbouring stripes two cache lines apart.
+// - The spacers stay reachable next to their locks, the layout is best effort since the JVM is free to move objects.
+// 3) Trade-off:
+// - Two accounts on the same stripe serialize each other, more stripes means fewer collisions.
+// 4) Deadlock Prevention:
+// - transfer() and transferBatch() lock stripes in index order, a shared stripe is locked once.
+public class StripedLockAccountService implements IBatchTransferAccountService {
+
+  // dao
+  private final IAccountDao accountDao;
+
+  // entity to dto mapper
+  private final Function<Account, AccountDto> accountEntityDtoMapper =
+      entity -> Optional.ofNullable(entity)
+          .map(e -> AccountDto.builder()
+              .iban(e.getIban())
+              .balance(e.getBalance())
+              .build())
+          .orElse(null);
+
+  // 16 longs = 128 bytes = two cache lines, also covers the adjacent line prefetch
+  private static final int SPACING = 16;
+
+  private final int mask;
+  private final ReentrantLock[] locks;
+
+  // only holds the spacing between the locks, never read
+  @SuppressWarnings("unused")
+  private final long[][] spacers;
+
+  public StripedLockAccountService(IAccountDao accountDao) {
+    this(accountDao, Config.LOCK_STRIPE_COUNT);
+  }
+
+  public StripedLockAccountService(IAccountDao accountDao, int stripes) {
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("Stripe count not valid!");
+    }
+
+    int size = Integer.highestOneBit(stripes);
+
+    if (size < stripes) {
+      size <<= 1;
+    }
+
+    this.accountDao = accountDao;
+    this.mask = size - 1;
+    this.locks = new ReentrantLock[size];
+    this.spacers = new long[size][];
+
+    for (int i = 0; i < size; i++) {
+      // the lock and its Sync are allocated together, the spacer right after them
+      locks[i] = new ReentrantLock();
+      spacers[i] = new long[SPACING];
+    }
+  }
+
+  public int getStripeCount() {
+    return locks.length;
+  }
+
+  @Override
+  public AccountDto open() {
+    Account entity = Account.builder()
+        .iban(ValueUtil.generateIban())
+        .balance(0)
+        .createdAt(ZonedDateTime.now())
+        .build();
+
+    // get lock
+    ReentrantLock lock = locks[stripe(entity.getIban())];
+
+    // lock for operation
+    lock.lock();
+
+    try {
+
+      // critical section - begin
+      // operation
+      entity = accountDao.save(entity);
+      // critical section - end
+
+    } finally {
+      // unlock for operation
+      lock.unlock();
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entity);
+  }
+
+  @Override
+  public void close(String iban) {
+    // validation
+    ValidateUtil.validateIban(iban);
+
+    // get lock
+    ReentrantLock lock = locks[stripe(iban)];
+
+    // lock for operation
+    // the stripe outlives the account, so there is nothing to clean up and no stale lock to time out on
+    lock.lock();
+
+    try {
+
+      // critical section - begin
+      // operation
+      accountDao.deleteByID(iban);
+      // critical section - end
+
+    } finally {
+      // unlock for operation
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public AccountDto get(String iban) {
+    // validation
+    ValidateUtil.validateIban(iban);
+
+    // get lock
+    ReentrantLock lock = locks[stripe(iban)];
+
+    // lock for operation
+    lock.lock();
+
+    Account entity = null;
+
+    try {
+
+      // critical section - begin
+      // operation
+      entity = accountDao.retrieveByID(iban)
+          .orElseThrow(() -> new RuntimeException("Account not found!"));
+      // critical section - end
+
+    } finally {
+      // unlock for operation
+      lock.unlock();
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entity);
+  }
+
+  @Override
+  public AccountDto withdraw(String iban, double amount) {
+    // validation
+    ValidateUtil.validateIban(iban);
+    ValidateUtil.validateAmount(amount);
+
+    // get lock
+    ReentrantLock lock = locks[stripe(iban)];
+
+    // lock for operation
+    lock.lock();
+
+    Account entity = null;
+
+    try {
+
+      // critical section - begin
+      // operation
+      entity = accountDao.retrieveByID(iban)
+          .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+      // validation
+      if (entity.getBalance() < amount) {
+        throw new RuntimeException("Amount not valid: Amount is not enough!");
+      }
+
+      // operation
+      double newBalance = entity.getBalance() - amount;
+      entity.setBalance(newBalance);
+      entity = accountDao.save(entity);
+      // critical section - end
+
+    } finally {
+      // unlock for operation
+      lock.unlock();
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entity);
+  }
+
+  @Override
+  public AccountDto deposit(String iban, double amount) {
+    // validation
+    ValidateUtil.validateIban(iban);
+    ValidateUtil.validateAmount(amount);
+
+    // get lock
+    ReentrantLock lock = locks[stripe(iban)];
+
+    // lock for operation
+    lock.lock();
+
+    Account entity = null;
+
+    try {
+
+      // critical section - begin
+      // operation
+      entity = accountDao.retrieveByID(iban)
+          .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+      // operation
+      double newBalance = entity.getBalance() + amount;
+      entity.setBalance(newBalance);
+      entity = accountDao.save(entity);
+      // critical section - end
+
+    } finally {
+      // unlock for operation
+      lock.unlock();
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entity);
+  }
+
+  @Override
+  public AccountDto transfer(String ibanFrom, String ibanTo, double amount) {
+    // validation
+    ValidateUtil.validateIban(ibanFrom);
+    ValidateUtil.validateIban(ibanTo);
+    ValidateUtil.validateDifferentIbans(ibanFrom, ibanTo);
+    ValidateUtil.validateAmount(amount);
+
+    // get lock
+    // lower stripe first, every thread takes the same two stripes in the same order
+    int stripeFrom = stripe(ibanFrom);
+    int stripeTo = stripe(ibanTo);
+
+    ReentrantLock lockFirst = locks[Math.min(stripeFrom, stripeTo)];
+    ReentrantLock lockSecond = (stripeFrom == stripeTo) ? null : locks[Math.max(stripeFrom, stripeTo)];
+
+    // lock for operation
+    lockFirst.lock();
+
+    Account entityFrom = null;
+
+    try {
+
+      if (lockSecond != null) {
+        lockSecond.lock();
+      }
+
+      try {
+
+        // critical section - begin
+        // operation
+        entityFrom = accountDao.retrieveByID(ibanFrom)
+            .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+        // operation
+        Account entityTo = accountDao.retrieveByID(ibanTo)
+            .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+        // validation
+        if (entityFrom.getBalance() < amount) {
+          throw new RuntimeException("Amount not valid: Amount is not enough!");
+        }
+
+        // operation
+        double newBalanceFrom = entityFrom.getBalance() - amount;
+        entityFrom.setBalance(newBalanceFrom);
+        entityFrom = accountDao.save(entityFrom);
+
+        // operation
+        double newBalanceTo = entityTo.getBalance() + amount;
+        entityTo.setBalance(newBalanceTo);
+
+        accountDao.save(entityTo);
+        // critical section - end
+
+      } finally {
+        // unlock for operation
+        if (lockSecond != null) {
+          lockSecond.unlock();
+        }
+      }
+
+    } finally {
+      // unlock for operation
+      lockFirst.unlock();
+    }
+
+    // mapping
+    return accountEntityDtoMapper.apply(entityFrom);
+  }
+
+  @Override
+  public List<AccountDto> transferBatch(List<TransferDto> transfers) {
+    // validation
+    TransferUtil.validateTransfers(transfers);
+
+    // get lock
+    // distinct stripes of all involved accounts in index order
+    Set<Integer> stripes = new TreeSet<>();
+
+    for (TransferDto transfer : transfers) {
+      stripes.add(stripe(transfer.getIbanFrom()));
+      stripes.add(stripe(transfer.getIbanTo()));
+    }
+
+    int[] order = stripes.stream()
+        .mapToInt(Integer::intValue)
+        .toArray();
+
+    int locked = 0;
+
+    List<Account> entities;
+
+    try {
+      // lock for operation
+      for (int stripe : order) {
+        locks[stripe].lock();
+        locked++;
+      }
+
+      // critical section - begin
+      // operation
+      entities = TransferUtil.applyTransfers(accountDao, transfers);
+      // critical section - end
+
+    } finally {
+      // unlock for operation
+      for (int i = locked - 1; i >= 0; i--) {
+        locks[order[i]].unlock();
+      }
+    }
+
+    // mapping
+    return entities.stream()
+        .map(accountEntityDtoMapper)
+        .toList();
+  }
+
+  private int stripe(String iban) {
+    // String caches its hash, the multiply spreads the digits over the high bits used by the mask
+    int h = iban.hashCode() * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+}
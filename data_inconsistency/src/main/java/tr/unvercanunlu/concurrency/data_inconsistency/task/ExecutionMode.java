@@ -0,0 +1,40 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.task;
+
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import tr.unvercanunlu.concurrency.data_inconsistency.task.impl.MeasuredTaskRunner;
+import tr.unvercanunlu.concurrency.data_inconsistency.task.impl.TaskRunner;
+
+@RequiredArgsConstructor
+public enum ExecutionMode {
+
+  // one platform thread per operation
+  THREAD(TaskRunner::new),
+
+  // one virtual thread per operation, only available with the java21 build profile
+  VIRTUAL(ExecutionMode::createVirtualThreadRunner),
+
+  // workers released together from a start gate, per-operation latency histograms
+  MEASURED(MeasuredTaskRunner::new);
+
+  private static final String VIRTUAL_THREAD_RUNNER = "tr.unvercanunlu.concurrency.data_inconsistency.task.impl.VirtualThreadTaskRunner";
+
+  private final Supplier<ITaskRunner> runnerFactory;
+
+  public ITaskRunner createRunner() {
+    return runnerFactory.get();
+  }
+
+  // loaded by name, the class is only compiled on java 21
+  private static ITaskRunner createVirtualThreadRunner() {
+    try {
+      return (ITaskRunner) Class.forName(VIRTUAL_THREAD_RUNNER)
+          .getDeclaredConstructor()
+          .newInstance();
+
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual thread mode requires the java21 build profile!", e);
+    }
+  }
+
+}
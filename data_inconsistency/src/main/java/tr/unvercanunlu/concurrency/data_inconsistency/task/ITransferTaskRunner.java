@@ -0,0 +1,12 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.task;
+
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
+
+public interface ITransferTaskRunner {
+
+  void runTransfers(IAccountService service, long accounts, long transfers);
+
+  void runTransfers(IBatchTransferAccountService service, long accounts, long transfers, long batchTransfers);
+
+}
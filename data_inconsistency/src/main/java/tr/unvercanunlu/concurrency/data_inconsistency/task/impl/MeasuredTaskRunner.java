@@ -0,0 +1,221 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.task.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import lombok.SneakyThrows;
+import tr.unvercanunlu.concurrency.data_inconsistency.config.Config;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.task.ITaskRunner;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.LatencyHistogram;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
+
+// Measures latency of every single operation
+// 1) Coordinated start:
+// - All workers are created and parked on a start gate first, then released together.
+// - No worker finishes before the last one starts, so the timing is not skewed by thread start-up.
+// 2) No spinning:
+// - The runner waits on latches instead of polling thread states.
+// 3) Tail latency:
+// - Each operation type has its own lock-free histogram (p50/p99/p99.9/max).
+public class MeasuredTaskRunner implements ITaskRunner {
+
+  // logger
+  private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+  private final int workers;
+
+  public MeasuredTaskRunner() {
+    this(Config.WORKER_COUNT);
+  }
+
+  public MeasuredTaskRunner(int workers) {
+    if (workers <= 0) {
+      throw new IllegalArgumentException("Workers not valid!");
+    }
+
+    this.workers = workers;
+  }
+
+  @SneakyThrows
+  @Override
+  public void run(IAccountService service, long accounts, long deposits, long withdraws, long checkBalances) {
+    String message = "Parameters: #accounts=%d #deposits=%d #check-balances=%d #withdraws=%d #workers=%d".formatted(accounts, deposits, checkBalances, withdraws, workers);
+    logger.log(Level.INFO, message);
+
+    Set<String> ibans = LongStream.range(0, accounts)
+        .mapToObj(i -> service.open())
+        .map(AccountDto::getIban)
+        .collect(Collectors.toSet());
+
+    logger.log(Level.INFO, "Total {0} accounts are opened.", accounts);
+
+    LatencyHistogram depositLatency = new LatencyHistogram();
+    LatencyHistogram withdrawLatency = new LatencyHistogram();
+    LatencyHistogram checkBalanceLatency = new LatencyHistogram();
+
+    // failed operations update the expected balances concurrently
+    Map<String, Double> expectedBalances = new ConcurrentHashMap<>();
+
+    List<Runnable> tasks = new ArrayList<>();
+
+    for (String iban : ibans) {
+      double expectedBalance = 0d;
+
+      for (int i = 0; i < deposits; i++) {
+        double amount = ValueUtil.generateNumber(Config.DEPOSIT_AMOUNT_MIN, Config.DEPOSIT_AMOUNT_MAX);
+
+        tasks.add(() -> {
+          long begin = System.nanoTime();
+
+          try {
+            service.deposit(iban, amount);
+
+          } catch (Exception e) {
+            logger.log(Level.SEVERE, "Deposit operation failed: {0}", e.getMessage());
+
+            expectedBalances.merge(iban, -amount, Double::sum);
+
+          } finally {
+            depositLatency.record(System.nanoTime() - begin);
+          }
+        });
+
+        expectedBalance += amount;
+      }
+
+      for (int i = 0; i < withdraws; i++) {
+        double amount = ValueUtil.generateNumber(Config.WITHDRAW_AMOUNT_MIN, Config.WITHDRAW_AMOUNT_MAX);
+
+        tasks.add(() -> {
+          long begin = System.nanoTime();
+
+          try {
+            service.withdraw(iban, amount);
+
+          } catch (Exception e) {
+            logger.log(Level.SEVERE, "Withdraw operation failed: {0}", e.getMessage());
+
+            expectedBalances.merge(iban, amount, Double::sum);
+
+          } finally {
+            withdrawLatency.record(System.nanoTime() - begin);
+          }
+        });
+
+        expectedBalance -= amount;
+      }
+
+      for (int i = 0; i < checkBalances; i++) {
+        tasks.add(() -> {
+          long begin = System.nanoTime();
+
+          try {
+            service.get(iban);
+
+          } catch (Exception e) {
+            logger.log(Level.SEVERE, "Check balance operation failed: {0}", e.getMessage());
+
+          } finally {
+            checkBalanceLatency.record(System.nanoTime() - begin);
+          }
+        });
+      }
+
+      expectedBalances.merge(iban, expectedBalance, Double::sum);
+    }
+
+    // operations of all accounts are mixed, like the unordered thread set of TaskRunner
+    Collections.shuffle(tasks);
+
+    CountDownLatch ready = new CountDownLatch(workers);
+    CountDownLatch startGate = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(workers);
+
+    List<Thread> threads = new ArrayList<>(workers);
+
+    for (int worker = 0; worker < workers; worker++) {
+      // every worker takes every n-th task
+      int first = worker;
+
+      Runnable task = () -> {
+        try {
+          ready.countDown();
+          startGate.await();
+
+          for (int i = first; i < tasks.size(); i += workers) {
+            tasks.get(i).run();
+          }
+
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          logger.log(Level.SEVERE, "Worker is interrupted: {0}", e.getMessage());
+
+        } finally {
+          done.countDown();
+        }
+      };
+
+      threads.add(new Thread(task, "worker-%d".formatted(worker)));
+    }
+
+    threads.forEach(Thread::start);
+
+    // all workers are parked on the start gate
+    ready.await();
+
+    logger.log(Level.INFO, "Total {0} workers are ready. Workers are released.", workers);
+
+    long start = System.nanoTime();
+
+    startGate.countDown();
+    done.await();
+
+    long end = System.nanoTime();
+
+    logger.log(Level.INFO, "Waiting for completing all workers is completed.");
+
+    Duration duration = Duration.ofNanos(end - start);
+    logger.log(Level.INFO, "Duration: {0} milliseconds.", duration.toMillis());
+
+    double throughput = tasks.size() / (duration.toNanos() / 1_000_000_000d);
+
+    message = "Throughput: %.0f operations/second".formatted(throughput);
+    logger.log(Level.INFO, message);
+
+    logger.log(Level.INFO, "Deposit latency: {0}", depositLatency.summary());
+    logger.log(Level.INFO, "Withdraw latency: {0}", withdrawLatency.summary());
+    logger.log(Level.INFO, "Check balance latency: {0}", checkBalanceLatency.summary());
+
+    long dataInconsistentAccounts = 0;
+
+    for (String iban : ibans) {
+      AccountDto account = service.get(iban);
+
+      double actual = account.getBalance();
+      double expected = expectedBalances.get(iban);
+      double error = actual - expected;
+
+      message = "IBAN=%s Actual=%f Expected=%f Error=%f".formatted(iban, actual, expected, error);
+      logger.log(Level.INFO, message);
+
+      if (error != 0) {
+        dataInconsistentAccounts++;
+      }
+    }
+
+    message = "Data inconsistency occurs in %d accounts.".formatted(dataInconsistentAccounts);
+    logger.log(Level.INFO, message);
+  }
+
+}
@@ -3,11 +3,14 @@ package tr.unvercanunlu.concurrency.data_inconsistency.task.impl;
 import java.lang.Thread.State;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -15,12 +18,15 @@ import java.util.stream.LongStream;
 import lombok.SneakyThrows;
 import tr.unvercanunlu.concurrency.data_inconsistency.config.Config;
 import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
 import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IBatchTransferAccountService;
 import tr.unvercanunlu.concurrency.data_inconsistency.task.ITaskRunner;
+import tr.unvercanunlu.concurrency.data_inconsistency.task.ITransferTaskRunner;
 import tr.unvercanunlu.concurrency.data_inconsistency.thread.OperationThread;
 import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
 
-public class TaskRunner implements ITaskRunner {
+public class TaskRunner implements ITaskRunner, ITransferTaskRunner {
 
   // logger
   private final Logger logger = Logger.getLogger(this.getClass().getName());
@@ -148,7 +154,7 @@ public class TaskRunner implements ITaskRunner {
 
     logger.log(Level.INFO, "Waiting for completing all threads is completed.");
 
-    Duration duration = Duration.of(end - start, ChronoUnit.MILLIS);
+    Duration duration = Duration.ofNanos(end - start);
     logger.log(Level.INFO, "Duration: {0} milliseconds.", duration.toMillis());
 
     long dataInconsistentAccounts = 0;
@@ -172,4 +178,166 @@ public class TaskRunner implements ITaskRunner {
     logger.log(Level.INFO, message);
   }
 
+  // transfer-heavy workload
+  // - every account starts with the same balance, transfers and batch transfers move money between random accounts
+  // - money is only moved, never created, so the total balance must not change
+  // - opposite transfers between the same accounts run concurrently, threads still alive after the timeout point to a deadlock
+  @Override
+  public void runTransfers(IAccountService service, long accounts, long transfers) {
+    runTransfers(service, null, accounts, transfers, 0);
+  }
+
+  @Override
+  public void runTransfers(IBatchTransferAccountService service, long accounts, long transfers, long batchTransfers) {
+    runTransfers(service, service, accounts, transfers, batchTransfers);
+  }
+
+  // batchService is null for services without batch transfers, then no batch is generated
+  @SneakyThrows
+  private void runTransfers(IAccountService service, IBatchTransferAccountService batchService, long accounts, long transfers, long batchTransfers) {
+    String message = "Parameters: #accounts=%d #transfers=%d #batch-transfers=%d".formatted(accounts, transfers, batchTransfers);
+    logger.log(Level.INFO, message);
+
+    List<String> ibans = LongStream.range(0, accounts)
+        .mapToObj(i -> service.open())
+        .map(AccountDto::getIban)
+        .toList();
+
+    ibans.forEach(iban -> service.deposit(iban, Config.TRANSFER_INITIAL_BALANCE));
+
+    logger.log(Level.INFO, "Total {0} accounts are opened.", accounts);
+
+    double expectedTotal = (double) accounts * Config.TRANSFER_INITIAL_BALANCE;
+
+    // a transfer to the same account must be rejected, with a dao returning copies it would create money
+    try {
+      service.transfer(ibans.get(0), ibans.get(0), Config.TRANSFER_AMOUNT_MIN);
+      logger.log(Level.SEVERE, "Transfer to the same account is accepted!");
+
+    } catch (Exception e) {
+      logger.log(Level.INFO, "Transfer to the same account is rejected: {0}", e.getMessage());
+    }
+
+    // rejected transfers are expected when a balance runs low, they are only counted
+    AtomicLong failedTransfers = new AtomicLong();
+
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < transfers; i++) {
+      TransferDto transfer = generateTransfer(ibans);
+
+      String name = "thread-%s-%d".formatted("transfer", i);
+
+      Runnable task = () -> {
+        try {
+          service.transfer(transfer.getIbanFrom(), transfer.getIbanTo(), transfer.getAmount());
+
+        } catch (Exception e) {
+          failedTransfers.incrementAndGet();
+        }
+      };
+
+      threads.add(transferThread(name, task));
+    }
+
+    for (int i = 0; i < batchTransfers; i++) {
+      List<TransferDto> batch = new ArrayList<>(Config.BATCH_TRANSFER_SIZE);
+
+      for (int j = 0; j < Config.BATCH_TRANSFER_SIZE; j++) {
+        batch.add(generateTransfer(ibans));
+      }
+
+      String name = "thread-%s-%d".formatted("batch-transfer", i);
+
+      Runnable task = () -> {
+        try {
+          batchService.transferBatch(batch);
+
+        } catch (Exception e) {
+          failedTransfers.incrementAndGet();
+        }
+      };
+
+      threads.add(transferThread(name, task));
+    }
+
+    Duration timeout = Duration.of(10, ChronoUnit.SECONDS);
+
+    logger.log(Level.INFO, "Total {0} threads are created. Threads are starting.", threads.size());
+
+    long start = System.nanoTime();
+
+    // start threads
+    threads.forEach(Thread::start);
+
+    // waits threads to complete, the timeout is shared by all threads
+    long deadline = start + timeout.toNanos();
+
+    for (Thread thread : threads) {
+      long remaining = deadline - System.nanoTime();
+
+      if (remaining <= 0) {
+        break;
+      }
+
+      thread.join(Duration.ofNanos(remaining).toMillis() + 1);
+    }
+
+    long end = System.nanoTime();
+
+    Duration duration = Duration.ofNanos(end - start);
+    logger.log(Level.INFO, "Duration: {0} milliseconds.", duration.toMillis());
+
+    long aliveThreads = threads.stream()
+        .filter(Thread::isAlive)
+        .count();
+
+    if (aliveThreads > 0) {
+      // balances cannot be read, the accounts of stuck threads stay locked
+      logger.log(Level.SEVERE, "Total {0} threads did not complete, transfers are deadlocked.", aliveThreads);
+      return;
+    }
+
+    logger.log(Level.INFO, "Total {0} transfers are rejected.", failedTransfers.get());
+
+    double actualTotal = 0;
+    long negativeAccounts = 0;
+
+    for (String iban : ibans) {
+      double balance = service.get(iban).getBalance();
+
+      actualTotal += balance;
+
+      if (balance < 0) {
+        negativeAccounts++;
+      }
+    }
+
+    message = "Total balance: Actual=%f Expected=%f Error=%f".formatted(actualTotal, expectedTotal, actualTotal - expectedTotal);
+    logger.log(Level.INFO, message);
+
+    message = "Money is %s, %d accounts have negative balance.".formatted((actualTotal == expectedTotal) ? "conserved" : "not conserved", negativeAccounts);
+    logger.log(Level.INFO, message);
+  }
+
+  // daemon: a deadlocked thread must not keep the application alive
+  private Thread transferThread(String name, Runnable task) {
+    Thread thread = new Thread(task, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private TransferDto generateTransfer(List<String> ibans) {
+    int from = (int) ValueUtil.generateNumber(0, ibans.size());
+
+    // any other account
+    int to = (from + 1 + (int) ValueUtil.generateNumber(0, ibans.size() - 1)) % ibans.size();
+
+    return TransferDto.builder()
+        .ibanFrom(ibans.get(from))
+        .ibanTo(ibans.get(to))
+        .amount(ValueUtil.generateNumber(Config.TRANSFER_AMOUNT_MIN, Config.TRANSFER_AMOUNT_MAX))
+        .build();
+  }
+
 }
@@ -0,0 +1,108 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import tr.unvercanunlu.concurrency.data_inconsistency.config.Config;
+
+// IBAN as two longs instead of a 28-char String
+// - high: country code index (26 x 26 letters) x 10^13 + first half of the digits
+// - low: second half of the digits
+// - 13 digits fit into 44 bits, so both parts stay positive and the pair is unique per IBAN.
+// - Only upper case country codes are accepted, so the code identifies an account exactly like the IBAN string does.
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class IbanCodec {
+
+  private static final int HALF_DIGIT_LENGTH = Config.IBAN_DIGIT_LENGTH / 2;
+  private static final long HALF_SCALE = pow10(HALF_DIGIT_LENGTH);
+
+  static {
+    if ((Config.IBAN_COUNTRY_CODE_LENGTH != 2) || ((Config.IBAN_DIGIT_LENGTH % 2) != 0) || (HALF_DIGIT_LENGTH > 15)) {
+      throw new ExceptionInInitializerError("IBAN format not supported by the codec!");
+    }
+  }
+
+  public static long encodeHigh(String iban) {
+    validate(iban);
+
+    long country = (letter(iban.charAt(0)) * 26L) + letter(iban.charAt(1));
+
+    return (country * HALF_SCALE) + digits(iban, Config.IBAN_COUNTRY_CODE_LENGTH);
+  }
+
+  public static long encodeLow(String iban) {
+    validate(iban);
+
+    return digits(iban, Config.IBAN_COUNTRY_CODE_LENGTH + HALF_DIGIT_LENGTH);
+  }
+
+  // global order of accounts, used to take several account locks without deadlock
+  // the encoding is one-to-one, so only equal IBANs compare as 0
+  public static int compare(String iban1, String iban2) {
+    int result = Long.compare(encodeHigh(iban1), encodeHigh(iban2));
+
+    return (result != 0) ? result : Long.compare(encodeLow(iban1), encodeLow(iban2));
+  }
+
+  public static String decode(long high, long low) {
+    long country = high / HALF_SCALE;
+
+    StringBuilder builder = new StringBuilder(Config.IBAN_TOTAL_LENGTH)
+        .append((char) ('A' + (country / 26)))
+        .append((char) ('A' + (country % 26)));
+
+    appendDigits(builder, high % HALF_SCALE);
+    appendDigits(builder, low);
+
+    return builder.toString();
+  }
+
+  private static void validate(String iban) {
+    if ((iban == null) || (iban.length() != Config.IBAN_TOTAL_LENGTH)) {
+      throw new IllegalArgumentException("IBAN not valid!");
+    }
+  }
+
+  // no case folding: "pl..." and "PL..." would share a code while every String-keyed map sees two accounts
+  private static int letter(char c) {
+    if ((c < 'A') || (c > 'Z')) {
+      throw new IllegalArgumentException("IBAN not valid!");
+    }
+
+    return c - 'A';
+  }
+
+  private static long digits(String iban, int from) {
+    long value = 0;
+
+    for (int i = from; i < (from + HALF_DIGIT_LENGTH); i++) {
+      char c = iban.charAt(i);
+
+      if ((c < '0') || (c > '9')) {
+        throw new IllegalArgumentException("IBAN not valid!");
+      }
+
+      value = (value * 10) + (c - '0');
+    }
+
+    return value;
+  }
+
+  // zero-padded to half of the digits
+  private static void appendDigits(StringBuilder builder, long value) {
+    String digits = Long.toString(value);
+
+    builder.append("0".repeat(HALF_DIGIT_LENGTH - digits.length()))
+        .append(digits);
+  }
+
+  private static long pow10(int exponent) {
+    long value = 1;
+
+    for (int i = 0; i < exponent; i++) {
+      value *= 10;
+    }
+
+    return value;
+  }
+
+}
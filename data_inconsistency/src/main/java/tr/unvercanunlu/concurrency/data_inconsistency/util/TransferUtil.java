@@ -0,0 +1,90 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import tr.unvercanunlu.concurrency.data_inconsistency.dao.IAccountDao;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.TransferDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.entity.Account;
+
+// Batch transfers shared by the services
+// - The services lock the accounts, this class only validates and applies the batch.
+// - The batch is first checked against running balances, nothing is saved if any step fails.
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class TransferUtil {
+
+  public static void validateTransfers(List<TransferDto> transfers) {
+    if ((transfers == null) || transfers.isEmpty()) {
+      throw new RuntimeException("Transfers not valid: transfers are empty!");
+    }
+
+    for (TransferDto transfer : transfers) {
+      if (transfer == null) {
+        throw new RuntimeException("Transfer not valid: Transfer is null!");
+      }
+
+      ValidateUtil.validateIban(transfer.getIbanFrom());
+      ValidateUtil.validateIban(transfer.getIbanTo());
+      ValidateUtil.validateDifferentIbans(transfer.getIbanFrom(), transfer.getIbanTo());
+      ValidateUtil.validateAmount(transfer.getAmount());
+    }
+  }
+
+  // distinct IBANs of the batch in the global lock order
+  public static Set<String> lockOrder(List<TransferDto> transfers) {
+    Set<String> ibans = new TreeSet<>(IbanCodec::compare);
+
+    for (TransferDto transfer : transfers) {
+      ibans.add(transfer.getIbanFrom());
+      ibans.add(transfer.getIbanTo());
+    }
+
+    return ibans;
+  }
+
+  // callers must hold the locks of all involved accounts
+  public static List<Account> applyTransfers(IAccountDao accountDao, List<TransferDto> transfers) {
+    Set<String> ibans = lockOrder(transfers);
+
+    Map<String, Account> entities = new HashMap<>();
+    Map<String, Double> balances = new HashMap<>();
+
+    for (String iban : ibans) {
+      // operation
+      Account entity = accountDao.retrieveByID(iban)
+          .orElseThrow(() -> new RuntimeException("Account not found!"));
+
+      entities.put(iban, entity);
+      balances.put(iban, entity.getBalance());
+    }
+
+    // validation: transfers run in the given order, no balance may go below zero in between
+    for (TransferDto transfer : transfers) {
+      double balanceFrom = balances.get(transfer.getIbanFrom());
+
+      if (balanceFrom < transfer.getAmount()) {
+        throw new RuntimeException("Amount not valid: Amount is not enough!");
+      }
+
+      balances.put(transfer.getIbanFrom(), balanceFrom - transfer.getAmount());
+      balances.merge(transfer.getIbanTo(), transfer.getAmount(), Double::sum);
+    }
+
+    List<Account> result = new ArrayList<>(ibans.size());
+
+    for (String iban : ibans) {
+      // operation
+      Account entity = entities.get(iban);
+      entity.setBalance(balances.get(iban));
+      result.add(accountDao.save(entity));
+    }
+
+    return result;
+  }
+
+}
@@ -41,6 +41,11 @@ public class ValidateUtil {
       throw new RuntimeException("IBAN not valid: not all letters of country part are letter!");
     }
 
+    // IBANs are compared as strings (and encoded by IbanCodec) without case folding, so one spelling per account
+    if (!iban.trim().substring(0, 2).chars().allMatch(c -> (c >= 'A') && (c <= 'Z'))) {
+      throw new RuntimeException("IBAN not valid: letters of country part are not upper case!");
+    }
+
     if (!iban.trim().substring(0, 2).equalsIgnoreCase(Config.COUNTRY_CODE)) {
       throw new RuntimeException("IBAN not valid: country is different!");
     }
@@ -50,4 +55,11 @@ public class ValidateUtil {
     }
   }
 
+  // a transfer to the same account would read the account twice, with a DAO returning copies the second save creates money
+  public static void validateDifferentIbans(String ibanFrom, String ibanTo) {
+    if (ibanFrom.equals(ibanTo)) {
+      throw new RuntimeException("IBAN not valid: source and destination IBAN are the same!");
+    }
+  }
+
 }
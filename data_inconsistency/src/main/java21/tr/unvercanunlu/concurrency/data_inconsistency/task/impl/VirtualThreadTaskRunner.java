@@ -0,0 +1,172 @@
+package tr.unvercanunlu.concurrency.data_inconsistency.task.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.SneakyThrows;
+import tr.unvercanunlu.concurrency.data_inconsistency.config.Config;
+import tr.unvercanunlu.concurrency.data_inconsistency.model.dto.AccountDto;
+import tr.unvercanunlu.concurrency.data_inconsistency.service.IAccountService;
+import tr.unvercanunlu.concurrency.data_inconsistency.task.ITaskRunner;
+import tr.unvercanunlu.concurrency.data_inconsistency.util.ValueUtil;
+
+// Runs every operation on its own virtual thread (requires the java21 build profile)
+// - A virtual thread blocking inside synchronized pins its carrier thread, ReentrantLock unmounts it instead.
+// - Pinning is counted with two JFR events and reported with the throughput:
+//   jdk.VirtualThreadPinned fires only when a pinned virtual thread parks (e.g. Object.wait or a j.u.c lock inside synchronized),
+//   blocking on monitor entry never parks, so it is counted separately with jdk.JavaMonitorEnter on virtual threads.
+public class VirtualThreadTaskRunner implements ITaskRunner {
+
+  // logger
+  private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+  @SneakyThrows
+  @Override
+  public void run(IAccountService service, long accounts, long deposits, long withdraws, long checkBalances) {
+    String message = "Parameters: #accounts=%d #deposits=%d #check-balances=%d #withdraws=%d".formatted(accounts, deposits, checkBalances, withdraws);
+    logger.log(Level.INFO, message);
+
+    Set<String> ibans = LongStream.range(0, accounts)
+        .mapToObj(i -> service.open())
+        .map(AccountDto::getIban)
+        .collect(Collectors.toSet());
+
+    logger.log(Level.INFO, "Total {0} accounts are opened.", accounts);
+
+    // failed operations update the expected balances concurrently
+    Map<String, Double> expectedBalances = new ConcurrentHashMap<>();
+
+    List<Runnable> tasks = new ArrayList<>();
+
+    for (String iban : ibans) {
+      double expectedBalance = 0d;
+
+      for (int i = 0; i < deposits; i++) {
+        double amount = ValueUtil.generateNumber(Config.DEPOSIT_AMOUNT_MIN, Config.DEPOSIT_AMOUNT_MAX);
+
+        tasks.add(() -> {
+          try {
+            service.deposit(iban, amount);
+
+          } catch (Exception e) {
+            logger.log(Level.SEVERE, "Deposit operation failed: {0}", e.getMessage());
+
+            expectedBalances.merge(iban, -amount, Double::sum);
+          }
+        });
+
+        expectedBalance += amount;
+      }
+
+      for (int i = 0; i < withdraws; i++) {
+        double amount = ValueUtil.generateNumber(Config.WITHDRAW_AMOUNT_MIN, Config.WITHDRAW_AMOUNT_MAX);
+
+        tasks.add(() -> {
+          try {
+            service.withdraw(iban, amount);
+
+          } catch (Exception e) {
+            logger.log(Level.SEVERE, "Withdraw operation failed: {0}", e.getMessage());
+
+            expectedBalances.merge(iban, amount, Double::sum);
+          }
+        });
+
+        expectedBalance -= amount;
+      }
+
+      for (int i = 0; i < checkBalances; i++) {
+        tasks.add(() -> {
+          try {
+            service.get(iban);
+
+          } catch (Exception e) {
+            logger.log(Level.SEVERE, "Check balance operation failed: {0}", e.getMessage());
+          }
+        });
+      }
+
+      expectedBalances.merge(iban, expectedBalance, Double::sum);
+    }
+
+    // operations of all accounts are mixed, like the unordered thread set of TaskRunner
+    Collections.shuffle(tasks);
+
+    LongAdder pinned = new LongAdder();
+    LongAdder monitorBlocked = new LongAdder();
+
+    long start;
+    long end;
+
+    try (RecordingStream recording = new RecordingStream()) {
+      recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+      recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+
+      // a virtual thread blocked entering a monitor holds its carrier for the whole wait
+      recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ZERO);
+      recording.onEvent("jdk.JavaMonitorEnter", event -> {
+        if ((event.getThread() != null) && event.getThread().isVirtual()) {
+          monitorBlocked.increment();
+        }
+      });
+      recording.startAsync();
+
+      logger.log(Level.INFO, "Total {0} virtual threads are starting.", tasks.size());
+
+      start = System.nanoTime();
+
+      // close() waits for all submitted tasks
+      try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("virtual-", 0).factory())) {
+        tasks.forEach(executor::execute);
+      }
+
+      end = System.nanoTime();
+
+      // flushes the remaining events
+      recording.stop();
+    }
+
+    logger.log(Level.INFO, "Waiting for completing all virtual threads is completed.");
+
+    Duration duration = Duration.ofNanos(end - start);
+    logger.log(Level.INFO, "Duration: {0} milliseconds.", duration.toMillis());
+
+    double throughput = tasks.size() / (duration.toNanos() / 1_000_000_000d);
+
+    message = "Throughput: %.0f operations/second, Pinned: parked=%d monitor-blocked=%d".formatted(throughput, pinned.sum(), monitorBlocked.sum());
+    logger.log(Level.INFO, message);
+
+    long dataInconsistentAccounts = 0;
+
+    for (String iban : ibans) {
+      AccountDto account = service.get(iban);
+
+      double actual = account.getBalance();
+      double expected = expectedBalances.get(iban);
+      double error = actual - expected;
+
+      message = "IBAN=%s Actual=%f Expected=%f Error=%f".formatted(iban, actual, expected, error);
+      logger.log(Level.INFO, message);
+
+      if (error != 0) {
+        dataInconsistentAccounts++;
+      }
+    }
+
+    message = "Data inconsistency occurs in %d accounts.".formatted(dataInconsistentAccounts);
+    logger.log(Level.INFO, message);
+  }
+
+}
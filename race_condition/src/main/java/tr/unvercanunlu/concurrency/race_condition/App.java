@@ -1,34 +1,90 @@
 package tr.unvercanunlu.concurrency.race_condition;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
+import java.util.stream.IntStream;
 import lombok.SneakyThrows;
 import tr.unvercanunlu.concurrency.race_condition.config.Config;
+import tr.unvercanunlu.concurrency.race_condition.counter.CounterType;
 import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.MemoryOrder;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl.AdaptiveBackoff;
 import tr.unvercanunlu.concurrency.race_condition.counter.impl.AtomicCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.BackoffCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.BatchingCounter;
 import tr.unvercanunlu.concurrency.race_condition.counter.impl.Counter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.EliminationCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.FlatCombiningCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.InstrumentedAtomicCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.InstrumentedLockedCounter;
 import tr.unvercanunlu.concurrency.race_condition.counter.impl.LockedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.MappedCounterFile;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.StampedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.StripedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.VarHandleCounter;
+import tr.unvercanunlu.concurrency.race_condition.task.ExecutionMode;
+import tr.unvercanunlu.concurrency.race_condition.task.ISweepRunner;
 import tr.unvercanunlu.concurrency.race_condition.task.ITaskRunner;
-import tr.unvercanunlu.concurrency.race_condition.task.impl.TaskRunner;
+import tr.unvercanunlu.concurrency.race_condition.task.impl.SweepTaskRunner;
 import tr.unvercanunlu.concurrency.race_condition.util.ValueUtil;
 
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class App {
 
   // runner
-  private final ITaskRunner taskRunner = new TaskRunner();
+  private final ITaskRunner taskRunner;
+
+  // workload size
+  private final long operationCountMin;
+  private final long operationCountMax;
 
   // logger
   private final Logger logger = Logger.getLogger(this.getClass().getName());
 
+  private App(ExecutionMode mode) {
+    this.taskRunner = mode.createRunner();
+    this.operationCountMin = mode.getOperationCountMin();
+    this.operationCountMax = mode.getOperationCountMax();
+  }
+
+  // usage: App [THREAD|POOL|BATCHED|VIRTUAL|MEASURED]
+  // usage: App SWEEP [thread-count...]
   public static void main(String[] args) {
-    App app = new App();
+    if ((args.length > 0) && "SWEEP".equalsIgnoreCase(args[0])) {
+      sweep(args);
+      return;
+    }
+
+    ExecutionMode mode = (args.length > 0) ? ExecutionMode.valueOf(args[0].toUpperCase()) : ExecutionMode.THREAD;
+
+    App app = new App(mode);
 
     app.problem();
     app.solutionWithAtomic();
     app.solutionWithLock();
+    app.solutionWithStampedLock();
+    app.solutionWithStriping();
+    app.solutionWithBatching();
+    app.solutionWithFlatCombining();
+    app.solutionWithElimination();
+    app.solutionWithBackoff();
+    app.solutionWithMemoryOrders();
+    app.solutionWithInstrumentedAtomic();
+    app.solutionWithInstrumentedLock();
+    app.solutionWithMappedFile();
+  }
+
+  // every counter at 1, 2, 4, ... threads for a fixed duration, written as a throughput table
+  private static void sweep(String[] args) {
+    int[] threadCounts = (args.length > 1)
+        ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+        : IntStream.iterate(1, threads -> threads <= Config.SWEEP_THREAD_COUNT_MAX, threads -> threads * 2).toArray();
+
+    ISweepRunner sweepRunner = new SweepTaskRunner();
+    sweepRunner.run(List.of(CounterType.values()), threadCounts);
   }
 
   @SneakyThrows
@@ -36,13 +92,13 @@ public class App {
     logger.log(Level.INFO, "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently.");
 
     // write
-    long increments = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
 
     // write
-    long decrements = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
 
     // retrieve
-    long retrieves = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long retrieves = retrievesFor(increments + decrements);
 
     ICounter counter = new Counter();
     taskRunner.run(counter, increments, decrements, retrieves);
@@ -54,34 +110,239 @@ public class App {
         + "Solution with Synchronized: At most one thread can modify shared data.");
 
     // write
-    long increments = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
 
     // write
-    long decrements = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
 
     // retrieve
-    long retrieves = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long retrieves = retrievesFor(increments + decrements);
 
     ICounter counter = new LockedCounter();
     taskRunner.run(counter, increments, decrements, retrieves);
   }
 
+  @SneakyThrows
+  private void solutionWithStampedLock() {
+    logger.log(Level.INFO, "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, "
+        + "Solution with StampedLock: At most one thread can modify shared data, readers do not block it.");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    ICounter counter = new StampedCounter();
+    taskRunner.run(counter, increments, decrements, retrieves);
+  }
+
   @SneakyThrows
   private void solutionWithAtomic() {
     logger.log(Level.INFO,
         "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, Solution with Atomicity");
 
     // write
-    long increments = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
 
     // write
-    long decrements = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
 
     // retrieve
-    long retrieves = ValueUtil.generateNumber(Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX);
+    long retrieves = retrievesFor(increments + decrements);
 
     ICounter counter = new AtomicCounter();
     taskRunner.run(counter, increments, decrements, retrieves);
   }
 
+  @SneakyThrows
+  private void solutionWithStriping() {
+    logger.log(Level.INFO,
+        "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, Solution with Striping");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    ICounter counter = new StripedCounter();
+    taskRunner.run(counter, increments, decrements, retrieves);
+  }
+
+  @SneakyThrows
+  private void solutionWithBatching() {
+    logger.log(Level.INFO,
+        "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, "
+            + "Solution with Batching: Each thread applies its changes to an atomic counter with one add() per batch.");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    // the runner flushes the batch of every worker when it finishes
+    ICounter counter = new BatchingCounter(new AtomicCounter(), Config.BATCH_SIZE, Config.BATCH_DELAY_MICROS);
+    taskRunner.run(counter, increments, decrements, retrieves);
+  }
+
+  @SneakyThrows
+  private void solutionWithFlatCombining() {
+    logger.log(Level.INFO,
+        "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, Solution with Flat Combining");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    ICounter counter = new FlatCombiningCounter();
+    taskRunner.run(counter, increments, decrements, retrieves);
+  }
+
+  @SneakyThrows
+  private void solutionWithElimination() {
+    logger.log(Level.INFO,
+        "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, Solution with Elimination");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    ICounter counter = new EliminationCounter();
+    taskRunner.run(counter, increments, decrements, retrieves);
+  }
+
+  @SneakyThrows
+  private void solutionWithBackoff() {
+    logger.log(Level.INFO,
+        "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, Solution with Atomicity (Adaptive Backoff)");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    // the backoff policy is chosen per deployment, see counter.backoff.impl
+    ICounter counter = new BackoffCounter(new AdaptiveBackoff());
+    taskRunner.run(counter, increments, decrements, retrieves);
+  }
+
+  @SneakyThrows
+  private void solutionWithMemoryOrders() {
+    for (MemoryOrder order : MemoryOrder.values()) {
+      logger.log(Level.INFO,
+          "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, Solution with Atomicity (VarHandle, {0})", order);
+
+      // write
+      long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+      // write
+      long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+      // retrieve
+      long retrieves = retrievesFor(increments + decrements);
+
+      ICounter counter = new VarHandleCounter(order);
+      taskRunner.run(counter, increments, decrements, retrieves);
+    }
+  }
+
+  @SneakyThrows
+  private void solutionWithInstrumentedAtomic() {
+    logger.log(Level.INFO,
+        "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, Solution with Atomicity (Instrumented)");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    InstrumentedAtomicCounter counter = new InstrumentedAtomicCounter();
+
+    // metrics are visible over JMX (e.g. jconsole) while the run is in progress
+    counter.registerMetrics("atomic");
+
+    taskRunner.run(counter, increments, decrements, retrieves);
+  }
+
+  @SneakyThrows
+  private void solutionWithInstrumentedLock() {
+    logger.log(Level.INFO, "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, "
+        + "Solution with Synchronized (Instrumented): At most one thread can modify shared data.");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    InstrumentedLockedCounter counter = new InstrumentedLockedCounter();
+
+    // metrics are visible over JMX (e.g. jconsole) while the run is in progress
+    counter.registerMetrics("locked");
+
+    taskRunner.run(counter, increments, decrements, retrieves);
+  }
+
+  @SneakyThrows
+  private void solutionWithMappedFile() {
+    logger.log(Level.INFO,
+        "Problem: Race Condition, Reason: Multiple threads can access and modify shared data concurrently, Solution with Atomicity (Memory-Mapped File)");
+
+    // write
+    long increments = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // write
+    long decrements = ValueUtil.generateNumber(operationCountMin, operationCountMax);
+
+    // retrieve
+    long retrieves = retrievesFor(increments + decrements);
+
+    Path path = Files.createTempFile("race_condition", ".counters");
+
+    try (MappedCounterFile file = MappedCounterFile.open(path, Config.MAPPED_COUNTER_CAPACITY)) {
+      ICounter counter = file.counter("race_condition");
+      taskRunner.run(counter, increments, decrements, retrieves);
+
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  // retrieves for the given number of writes, keeping Config.READ_PERCENT of all operations as retrieves
+  private long retrievesFor(long writes) {
+    return writes * Config.READ_PERCENT / (100 - Config.READ_PERCENT);
+  }
+
 }
@@ -0,0 +1,373 @@
+package tr.unvercanunlu.concurrency.race_condition.collection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Concurrent open-addressing map from long keys to long values
+// 1) Primitive storage:
+// - Keys and values live in two long arrays per segment, no boxing and no per-entry object (16 bytes per slot, 21-43 bytes per key).
+// - Linear probing keeps lookups on neighbouring cache lines.
+// 2) Lock-free updates:
+// - A new key claims an empty slot with CAS, values are updated with CAS.
+// - Segments resize independently; a resize marks every value as MOVED, so a concurrent update retries on the new table.
+// 3) Reserved values:
+// - Key 0 marks an empty slot, so it is kept in a separate cell.
+// - Long.MIN_VALUE is the MOVED marker, an add that would make a value reach it is rejected.
+public class ConcurrentLongLongMap {
+
+  private static final long EMPTY = 0;
+  private static final long MOVED = Long.MIN_VALUE;
+
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int MIN_SEGMENT_CAPACITY = 16;
+
+  private final Segment[] segments;
+  private final int segmentShift;
+  private final int segmentMask;
+
+  // key 0 can not be stored in the tables
+  private final AtomicLong zeroKeyValue = new AtomicLong(0);
+  private volatile boolean zeroKeyPresent;
+
+  public ConcurrentLongLongMap(int segmentCount, long expectedKeys) {
+    if ((segmentCount <= 0) || (Integer.bitCount(segmentCount) != 1)) {
+      throw new IllegalArgumentException("Segment count not valid: must be a power of two!");
+    }
+
+    if (expectedKeys < 0) {
+      throw new IllegalArgumentException("Expected key count not valid!");
+    }
+
+    this.segments = new Segment[segmentCount];
+    this.segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+
+    // a shift of 64 is a no-op in java, with one segment the mask keeps the index at 0
+    this.segmentMask = segmentCount - 1;
+
+    long perSegment = (long) Math.ceil((expectedKeys / (double) segmentCount) / LOAD_FACTOR);
+    int capacity = (int) Math.max(MIN_SEGMENT_CAPACITY, Long.highestOneBit(Math.max(1, perSegment - 1)) << 1);
+
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(capacity);
+    }
+  }
+
+  public void add(long key, long delta) {
+    if (key == EMPTY) {
+      zeroKeyValue.getAndAdd(delta);
+      zeroKeyPresent = true;
+      return;
+    }
+
+    long hash = hash(key);
+    Segment segment = segment(hash);
+
+    while (true) {
+      Table table = segment.table;
+
+      int index = table.find(hash, key, true);
+
+      if (index >= 0) {
+        if (table.add(index, delta)) {
+          return;
+        }
+
+      } else if (index == Table.INSERTED) {
+        // the key is inserted now, the value is updated in the next round
+        if (segment.size.incrementAndGet() > table.threshold) {
+          resize(segment, table);
+        }
+
+        continue;
+      }
+
+      // moved or full: wait for the resize to finish and retry on the new table
+      awaitResize(segment, table);
+    }
+  }
+
+  public long get(long key) {
+    if (key == EMPTY) {
+      return zeroKeyValue.get();
+    }
+
+    long hash = hash(key);
+    Segment segment = segment(hash);
+
+    while (true) {
+      Table table = segment.table;
+
+      int index = table.find(hash, key, false);
+
+      if (index == Table.ABSENT) {
+        return 0;
+      }
+
+      if (index >= 0) {
+        long value = table.values.get(index);
+
+        if (value != MOVED) {
+          return value;
+        }
+      }
+
+      awaitResize(segment, table);
+    }
+  }
+
+  public boolean containsKey(long key) {
+    if (key == EMPTY) {
+      return zeroKeyPresent;
+    }
+
+    long hash = hash(key);
+    Segment segment = segment(hash);
+
+    while (true) {
+      Table table = segment.table;
+
+      int index = table.find(hash, key, false);
+
+      if (index == Table.ABSENT) {
+        return false;
+      }
+
+      if (index >= 0) {
+        return true;
+      }
+
+      awaitResize(segment, table);
+    }
+  }
+
+  // approximate under concurrent inserts
+  public long size() {
+    long size = zeroKeyPresent ? 1 : 0;
+
+    for (Segment segment : segments) {
+      size += segment.size.get();
+    }
+
+    return size;
+  }
+
+  // bytes used by the key and value arrays
+  public long footprint() {
+    long bytes = 0;
+
+    for (Segment segment : segments) {
+      bytes += 2L * Long.BYTES * segment.table.keys.length();
+    }
+
+    return bytes;
+  }
+
+  // copies all entries, each value is read atomically but the copy is not a point-in-time snapshot of the whole map
+  public void forEach(EntryConsumer consumer) {
+    if (zeroKeyPresent) {
+      consumer.accept(EMPTY, zeroKeyValue.get());
+    }
+
+    for (Segment segment : segments) {
+      // the segment lock keeps a resize from moving entries while they are copied
+      segment.resizeLock.lock();
+
+      try {
+        Table table = segment.table;
+
+        for (int i = 0; i < table.keys.length(); i++) {
+          long key = table.keys.get(i);
+
+          if (key != EMPTY) {
+            consumer.accept(key, table.values.get(i));
+          }
+        }
+
+      } finally {
+        segment.resizeLock.unlock();
+      }
+    }
+  }
+
+  private Segment segment(long hash) {
+    return segments[(int) (hash >>> segmentShift) & segmentMask];
+  }
+
+  private void resize(Segment segment, Table table) {
+    segment.resizeLock.lock();
+
+    try {
+      if (segment.table != table) {
+        // resized by another thread
+        return;
+      }
+
+      Table newTable = new Table(table.keys.length() * 2);
+      int size = 0;
+
+      for (int i = 0; i < table.keys.length(); i++) {
+        // value first: after this, updates of this slot retry on the new table
+        long value = table.values.getAndSet(i, MOVED);
+        long key = table.keys.get(i);
+
+        if (key != EMPTY) {
+          newTable.put(hash(key), key, value);
+          size++;
+        }
+      }
+
+      segment.table = newTable;
+      segment.size.set(size);
+
+    } finally {
+      segment.resizeLock.unlock();
+    }
+  }
+
+  private void awaitResize(Segment segment, Table table) {
+    if (segment.table != table) {
+      return;
+    }
+
+    // the resizing thread holds the lock until the new table is published
+    segment.resizeLock.lock();
+
+    try {
+      if ((segment.table == table) && table.isFull()) {
+        resize(segment, table);
+      }
+
+    } finally {
+      segment.resizeLock.unlock();
+    }
+  }
+
+  // murmur3 finalizer
+  private static long hash(long key) {
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    void accept(long key, long value);
+
+  }
+
+  private static final class Segment {
+
+    private final ReentrantLock resizeLock = new ReentrantLock();
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    private volatile Table table;
+
+    private Segment(int capacity) {
+      this.table = new Table(capacity);
+    }
+
+  }
+
+  private static final class Table {
+
+    private static final int ABSENT = -1;
+    private static final int INSERTED = -2;
+    private static final int RETRY = -3;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray values;
+    private final int mask;
+    private final int threshold;
+
+    private Table(int capacity) {
+      this.keys = new AtomicLongArray(capacity);
+      this.values = new AtomicLongArray(capacity);
+      this.mask = capacity - 1;
+      this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // slot of the key, or ABSENT, INSERTED (claimed a slot, caller retries) or RETRY (table is full)
+    private int find(long hash, long key, boolean insert) {
+      int index = (int) hash & mask;
+
+      for (int probe = 0; probe <= mask; probe++) {
+        long current = keys.get(index);
+
+        if (current == key) {
+          return index;
+        }
+
+        if (current == EMPTY) {
+          if (!insert) {
+            return ABSENT;
+          }
+
+          if (keys.compareAndSet(index, EMPTY, key)) {
+            return INSERTED;
+          }
+
+          // another thread claimed the slot, it may be the same key
+          if (keys.get(index) == key) {
+            return index;
+          }
+        }
+
+        index = (index + 1) & mask;
+      }
+
+      return insert ? RETRY : ABSENT;
+    }
+
+    private boolean add(int index, long delta) {
+      while (true) {
+        long current = values.get(index);
+
+        if (current == MOVED) {
+          return false;
+        }
+
+        long next = current + delta;
+
+        // a value equal to the marker would look moved forever and updates would retry without end
+        if (next == MOVED) {
+          throw new IllegalArgumentException("Delta not valid: value would reach the reserved Long.MIN_VALUE!");
+        }
+
+        if (values.compareAndSet(index, current, next)) {
+          return true;
+        }
+      }
+    }
+
+    // single-threaded insert while the table is not published yet
+    private void put(long hash, long key, long value) {
+      int index = (int) hash & mask;
+
+      while (keys.get(index) != EMPTY) {
+        index = (index + 1) & mask;
+      }
+
+      keys.set(index, key);
+      values.set(index, value);
+    }
+
+    private boolean isFull() {
+      for (int i = 0; i <= mask; i++) {
+        if (keys.get(i) == EMPTY) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+  }
+
+}
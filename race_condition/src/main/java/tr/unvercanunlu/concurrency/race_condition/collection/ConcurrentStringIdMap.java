@@ -0,0 +1,202 @@
+package tr.unvercanunlu.concurrency.race_condition.collection;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Concurrent dictionary from names to sequential long ids (interning)
+// 1) Primitive storage:
+// - Names and ids live in a reference array and a long array per segment, no boxed Long and no map node per name.
+// - The name String itself is the only per-key object.
+// 2) Lock-free lookups:
+// - The id is written before the name is published into its slot, a reader which sees the name also sees its id.
+// - A resized table is built completely before it is published, readers of the old table see a consistent subset.
+// 3) Locked inserts:
+// - A new name is inserted under the lock of its segment, after a second lookup, so every name gets exactly one id.
+// - Names are never removed, ids start at 1 and 0 means absent.
+public class ConcurrentStringIdMap {
+
+  public static final long ABSENT = 0;
+
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int MIN_SEGMENT_CAPACITY = 16;
+
+  private final Segment[] segments;
+  private final int segmentShift;
+  private final int segmentMask;
+
+  private final AtomicLong nextId = new AtomicLong(1);
+
+  public ConcurrentStringIdMap(int segmentCount) {
+    if ((segmentCount <= 0) || (Integer.bitCount(segmentCount) != 1)) {
+      throw new IllegalArgumentException("Segment count not valid: must be a power of two!");
+    }
+
+    this.segments = new Segment[segmentCount];
+
+    // high bits pick the segment, low bits the slot; with one segment the shift of 32 is a no-op and the mask keeps 0
+    this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+    this.segmentMask = segmentCount - 1;
+
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment();
+    }
+  }
+
+  // id of the name, ABSENT if it has none yet
+  public long get(String name) {
+    int hash = hash(name);
+
+    return segment(hash).table.find(hash, name);
+  }
+
+  // id of the name, a new one is assigned on the first call
+  public long intern(String name) {
+    int hash = hash(name);
+    Segment segment = segment(hash);
+
+    long id = segment.table.find(hash, name);
+
+    if (id != ABSENT) {
+      return id;
+    }
+
+    segment.lock.lock();
+
+    try {
+      // another thread may have inserted the name meanwhile
+      id = segment.table.find(hash, name);
+
+      if (id != ABSENT) {
+        return id;
+      }
+
+      if ((segment.size + 1) > segment.table.threshold) {
+        segment.table = segment.table.resize();
+      }
+
+      id = nextId.getAndIncrement();
+      segment.table.put(hash, name, id);
+      segment.size++;
+
+      return id;
+
+    } finally {
+      segment.lock.unlock();
+    }
+  }
+
+  // approximate under concurrent inserts
+  public long size() {
+    return nextId.get() - 1;
+  }
+
+  // visits all names, names inserted meanwhile may be missed
+  public void forEach(EntryConsumer consumer) {
+    for (Segment segment : segments) {
+      Table table = segment.table;
+
+      for (int i = 0; i < table.names.length(); i++) {
+        String name = table.names.get(i);
+
+        if (name != null) {
+          consumer.accept(name, table.ids[i]);
+        }
+      }
+    }
+  }
+
+  private Segment segment(int hash) {
+    return segments[(hash >>> segmentShift) & segmentMask];
+  }
+
+  // String caches its hash, the multiply spreads it over the segment and slot bits
+  private static int hash(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("Name not valid!");
+    }
+
+    int h = name.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    void accept(String name, long id);
+
+  }
+
+  private static final class Segment {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // guarded by the lock
+    private int size;
+
+    private volatile Table table = new Table(MIN_SEGMENT_CAPACITY);
+
+  }
+
+  private static final class Table {
+
+    private final AtomicReferenceArray<String> names;
+    private final long[] ids;
+    private final int mask;
+    private final int threshold;
+
+    private Table(int capacity) {
+      this.names = new AtomicReferenceArray<>(capacity);
+      this.ids = new long[capacity];
+      this.mask = capacity - 1;
+      this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private long find(int hash, String name) {
+      int index = hash & mask;
+
+      while (true) {
+        String current = names.get(index);
+
+        if (current == null) {
+          return ABSENT;
+        }
+
+        if (current.equals(name)) {
+          return ids[index];
+        }
+
+        index = (index + 1) & mask;
+      }
+    }
+
+    // must hold the segment lock; the id is written before the volatile store of the name publishes it
+    private void put(int hash, String name, long id) {
+      int index = hash & mask;
+
+      while (names.get(index) != null) {
+        index = (index + 1) & mask;
+      }
+
+      ids[index] = id;
+      names.set(index, name);
+    }
+
+    // must hold the segment lock, the new table is filled before it is published
+    private Table resize() {
+      Table table = new Table(names.length() * 2);
+
+      for (int i = 0; i < names.length(); i++) {
+        String name = names.get(i);
+
+        if (name != null) {
+          table.put(hash(name), name, ids[i]);
+        }
+      }
+
+      return table;
+    }
+
+  }
+
+}
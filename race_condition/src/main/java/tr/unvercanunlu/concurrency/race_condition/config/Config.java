@@ -1,5 +1,6 @@
 package tr.unvercanunlu.concurrency.race_condition.config;
 
+import java.util.List;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -9,4 +10,41 @@ public class Config {
   public static final long OPERATION_COUNT_MIN = 10_000;
   public static final long OPERATION_COUNT_MAX = 25_000;
 
+  // worker pool runs operations in a loop, so it can handle much bigger workloads
+  public static final long POOL_OPERATION_COUNT_MIN = 10_000_000;
+  public static final long POOL_OPERATION_COUNT_MAX = 25_000_000;
+
+  // virtual threads are cheap, one per operation is still feasible at this size
+  public static final long VIRTUAL_OPERATION_COUNT_MIN = 1_000_000;
+  public static final long VIRTUAL_OPERATION_COUNT_MAX = 2_500_000;
+
+  // every operation is timed, which roughly doubles its cost
+  public static final long MEASURED_OPERATION_COUNT_MIN = 1_000_000;
+  public static final long MEASURED_OPERATION_COUNT_MAX = 2_500_000;
+
+  public static final int WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+
+  // share of retrieves among all operations, the rest is split between increments and decrements
+  public static final int READ_PERCENT = 50;
+
+  // number of named counters in a memory-mapped counter file
+  public static final int MAPPED_COUNTER_CAPACITY = 64;
+
+  // number of increments or decrements applied with a single add() in the batched workload
+  public static final int BATCH_SIZE = 64;
+
+  // a per-thread batch of BatchingCounter is flushed at the latest after this delay
+  public static final long BATCH_DELAY_MICROS = 100;
+
+  // sweep: every counter runs for a fixed time at 1, 2, 4, ... threads
+  public static final long SWEEP_DURATION_MILLIS = 1_000;
+  public static final int SWEEP_REPEATS = 3;
+  public static final int SWEEP_THREAD_COUNT_MAX = WORKER_COUNT * 2;
+
+  // every thread count is run once per read share: write-heavy and read-heavy
+  public static final List<Integer> SWEEP_READ_PERCENTS = List.of(10, 90);
+
+  // results are written to <name>.csv and <name>.json in the working directory
+  public static final String SWEEP_OUTPUT = "sweep-result";
+
 }
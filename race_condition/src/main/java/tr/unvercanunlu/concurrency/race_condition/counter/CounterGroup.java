@@ -0,0 +1,308 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Related counters which are read together consistently (epoch-based double banking)
+// 1) Updates:
+// - Writers add into the active one of two banks, members are padded so they never share a cache line.
+// - A writer registers in its stripe of the active-writer table before the add, so writers never wait for each other.
+// 2) Snapshot:
+// - The snapshot switches the active bank, waits until the writers still registered in the old bank are done,
+//   then folds the old bank into the base values and copies them.
+// - The result contains exactly the updates registered before the switch, for every member.
+// - Writers are never stopped, only snapshots and resets wait for each other.
+// - A reset (of the group or of one member) folds the old bank the same way, then clears the base values.
+public class CounterGroup {
+
+  // 8 longs = 64 bytes = one cache line
+  private static final int PADDING = 8;
+
+  // spins before yielding the core to a registered writer
+  private static final int SPINS = 64;
+
+  private final String[] names;
+  private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+  private final AtomicLongArray[] banks = new AtomicLongArray[2];
+  private final AtomicLongArray writers;
+  private final int stripeMask;
+
+  // updates folded by earlier snapshots
+  private final long[] base;
+
+  private final ReentrantLock snapshotLock = new ReentrantLock();
+
+  // lowest bit selects the active bank
+  private volatile int epoch;
+
+  public CounterGroup(String... names) {
+    if ((names == null) || (names.length == 0)) {
+      throw new IllegalArgumentException("Counter names not valid!");
+    }
+
+    for (int i = 0; i < names.length; i++) {
+      if ((names[i] == null) || (indexes.putIfAbsent(names[i], i) != null)) {
+        throw new IllegalArgumentException("Counter name not valid!");
+      }
+    }
+
+    int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    this.names = names.clone();
+    this.stripeMask = stripes - 1;
+    this.base = new long[names.length];
+    this.banks[0] = new AtomicLongArray((names.length + 1) * PADDING);
+    this.banks[1] = new AtomicLongArray((names.length + 1) * PADDING);
+
+    // one line per stripe and bank
+    this.writers = new AtomicLongArray((stripes * 2 + 1) * PADDING);
+  }
+
+  public int size() {
+    return names.length;
+  }
+
+  public int indexOf(String name) {
+    Integer index = indexes.get(name);
+
+    if (index == null) {
+      throw new IllegalArgumentException("Counter name not valid!");
+    }
+
+    return index;
+  }
+
+  public void increment(int member) {
+    add(member, 1);
+  }
+
+  public void decrement(int member) {
+    add(member, -1);
+  }
+
+  public void add(int member, long delta) {
+    int cell = index(member);
+    int writer = register();
+
+    try {
+      banks[bankOf(writer)].getAndAdd(cell, delta);
+
+    } finally {
+      writers.getAndDecrement(writer);
+    }
+  }
+
+  // updates several members at once, a snapshot contains either all or none of them
+  public void add(int[] members, long[] deltas) {
+    if ((members == null) || (deltas == null) || (members.length != deltas.length)) {
+      throw new IllegalArgumentException("Counter updates not valid!");
+    }
+
+    for (int member : members) {
+      index(member);
+    }
+
+    int writer = register();
+
+    try {
+      AtomicLongArray bank = banks[bankOf(writer)];
+
+      for (int i = 0; i < members.length; i++) {
+        bank.getAndAdd(index(members[i]), deltas[i]);
+      }
+
+    } finally {
+      writers.getAndDecrement(writer);
+    }
+  }
+
+  // value of a single member, consistent with the other members only through snapshot()
+  public long retrieve(int member) {
+    int cell = index(member);
+
+    snapshotLock.lock();
+
+    try {
+      return base[member] + banks[0].get(cell) + banks[1].get(cell);
+
+    } finally {
+      snapshotLock.unlock();
+    }
+  }
+
+  // values of all members at the same instant, ordered like the names
+  public long[] snapshot() {
+    snapshotLock.lock();
+
+    try {
+      rotate();
+      return base.clone();
+
+    } finally {
+      snapshotLock.unlock();
+    }
+  }
+
+  public Map<String, Long> snapshotByName() {
+    long[] values = snapshot();
+
+    Map<String, Long> snapshot = new LinkedHashMap<>();
+
+    for (int i = 0; i < names.length; i++) {
+      snapshot.put(names[i], values[i]);
+    }
+
+    return snapshot;
+  }
+
+  // updates registered after the reset are kept
+  public void reset() {
+    snapshotLock.lock();
+
+    try {
+      rotate();
+      Arrays.fill(base, 0);
+
+    } finally {
+      snapshotLock.unlock();
+    }
+  }
+
+  // resets one member, the other members keep their values; updates registered after the reset are kept
+  public void reset(int member) {
+    index(member);
+
+    snapshotLock.lock();
+
+    try {
+      rotate();
+      base[member] = 0;
+
+    } finally {
+      snapshotLock.unlock();
+    }
+  }
+
+  // view of one member as a counter
+  public ICounter counter(String name) {
+    int member = indexOf(name);
+
+    return new ICounter() {
+
+      @Override
+      public long retrieve() {
+        return CounterGroup.this.retrieve(member);
+      }
+
+      @Override
+      public void increment() {
+        CounterGroup.this.increment(member);
+      }
+
+      @Override
+      public void decrement() {
+        CounterGroup.this.decrement(member);
+      }
+
+      @Override
+      public void add(long delta) {
+        CounterGroup.this.add(member, delta);
+      }
+
+      // not atomic: the value may include concurrent updates of other threads
+      @Override
+      public long addAndGet(long delta) {
+        CounterGroup.this.add(member, delta);
+        return CounterGroup.this.retrieve(member);
+      }
+
+      // not atomic: the value may include concurrent updates of other threads
+      @Override
+      public long getAndAdd(long delta) {
+        long previous = CounterGroup.this.retrieve(member);
+        CounterGroup.this.add(member, delta);
+        return previous;
+      }
+
+      @Override
+      public void reset() {
+        CounterGroup.this.reset(member);
+      }
+
+    };
+  }
+
+  // switches the active bank and folds the old one into the base, must hold the snapshot lock
+  private void rotate() {
+    int old = epoch;
+    epoch = old + 1;
+
+    int bank = old & 1;
+
+    for (int stripe = 0; stripe <= stripeMask; stripe++) {
+      int writer = writerIndex(stripe, bank);
+      int spins = 0;
+
+      while (writers.get(writer) != 0) {
+        if (++spins % SPINS == 0) {
+          Thread.yield();
+        } else {
+          Thread.onSpinWait();
+        }
+      }
+    }
+
+    for (int member = 0; member < names.length; member++) {
+      base[member] += banks[bank].getAndSet(index(member), 0);
+    }
+  }
+
+  // registers the current thread as a writer of the active bank, returns its writer cell
+  private int register() {
+    int stripe = (int) (mix(Thread.currentThread().getId()) & stripeMask);
+
+    while (true) {
+      int current = epoch;
+      int writer = writerIndex(stripe, current & 1);
+
+      writers.getAndIncrement(writer);
+
+      // a snapshot switched the bank meanwhile: register again
+      if (epoch == current) {
+        return writer;
+      }
+
+      writers.getAndDecrement(writer);
+    }
+  }
+
+  private int index(int member) {
+    if ((member < 0) || (member >= names.length)) {
+      throw new IllegalArgumentException("Counter index not valid!");
+    }
+
+    return (member + 1) * PADDING;
+  }
+
+  private static int writerIndex(int stripe, int bank) {
+    return ((stripe * 2) + bank + 1) * PADDING;
+  }
+
+  private static int bankOf(int writer) {
+    return ((writer / PADDING) - 1) & 1;
+  }
+
+  // murmur3 finalizer, spreads consecutive thread ids over the stripes
+  private static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return h;
+  }
+
+}
@@ -0,0 +1,58 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl.AdaptiveBackoff;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl.ExponentialJitterBackoff;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl.NoBackoff;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl.SpinBackoff;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.AdderCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.AtomicCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.BackoffCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.BatchingCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.Counter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.EliminationCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.FlatCombiningCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.InstrumentedAtomicCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.InstrumentedLockedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.LockedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.SingleWriterCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.StampedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.StripedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.VarHandleCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.impl.WindowedCounter;
+
+// All counter implementations, benchmarks pick them up from here
+@RequiredArgsConstructor
+public enum CounterType {
+
+  COUNTER(Counter::new),
+  ATOMIC(AtomicCounter::new),
+  LOCKED(LockedCounter::new),
+  STAMPED(StampedCounter::new),
+  STRIPED(StripedCounter::new),
+  INSTRUMENTED_ATOMIC(InstrumentedAtomicCounter::new),
+  INSTRUMENTED_LOCKED(InstrumentedLockedCounter::new),
+  WINDOWED(WindowedCounter::new),
+  ADDER(AdderCounter::new),
+  // per-thread batches in front of an atomic counter, runners flush them when a worker finishes
+  BATCHING(BatchingCounter::new),
+  FLAT_COMBINING(FlatCombiningCounter::new),
+  ELIMINATION(EliminationCounter::new),
+  BACKOFF_NONE(() -> new BackoffCounter(new NoBackoff())),
+  BACKOFF_SPIN(() -> new BackoffCounter(new SpinBackoff())),
+  BACKOFF_EXPONENTIAL(() -> new BackoffCounter(new ExponentialJitterBackoff())),
+  BACKOFF_ADAPTIVE(() -> new BackoffCounter(new AdaptiveBackoff())),
+  VARHANDLE_OPAQUE(() -> new VarHandleCounter(MemoryOrder.OPAQUE)),
+  VARHANDLE_ACQUIRE_RELEASE(() -> new VarHandleCounter(MemoryOrder.ACQUIRE_RELEASE)),
+  VARHANDLE_VOLATILE(() -> new VarHandleCounter(MemoryOrder.VOLATILE)),
+  // correct only with a single writer thread
+  SINGLE_WRITER(SingleWriterCounter::new);
+
+  private final Supplier<ICounter> factory;
+
+  public ICounter create() {
+    return factory.get();
+  }
+
+}
@@ -0,0 +1,15 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+public interface IBatchingCounter extends ICounter {
+
+  // applies pending changes of the current thread
+  void flush();
+
+  // runners call this when a worker finishes, so pending changes are never lost
+  static void flushIfBatching(ICounter counter) {
+    if (counter instanceof IBatchingCounter batchingCounter) {
+      batchingCounter.flush();
+    }
+  }
+
+}
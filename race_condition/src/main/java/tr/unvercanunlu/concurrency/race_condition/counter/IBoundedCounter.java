@@ -0,0 +1,22 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+// Counter which never leaves [min, max], for example a pool of permits
+public interface IBoundedCounter {
+
+  long retrieve();
+
+  boolean tryIncrement();
+
+  boolean tryDecrement();
+
+  // decreases by n, only if the result is not below min
+  boolean tryAcquire(long n);
+
+  // increases by n, only if the result is not above max
+  boolean tryRelease(long n);
+
+  long getMin();
+
+  long getMax();
+
+}
@@ -0,0 +1,18 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+public interface ICountMinSketch {
+
+  void increment(long key);
+
+  void add(long key, long delta);
+
+  // never below the exact count, above it by at most errorBound() with high probability
+  long estimate(long key);
+
+  long total();
+
+  long errorBound();
+
+  KeyedCounterSnapshot topK();
+
+}
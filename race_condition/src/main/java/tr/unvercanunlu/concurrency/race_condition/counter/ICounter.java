@@ -8,6 +8,12 @@ public interface ICounter {
 
   void decrement();
 
+  void add(long delta);
+
+  long addAndGet(long delta);
+
+  long getAndAdd(long delta);
+
   void reset();
 
 }
@@ -0,0 +1,12 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+import tr.unvercanunlu.concurrency.race_condition.counter.metric.ICounterMetrics;
+
+public interface IInstrumentedCounter extends ICounter {
+
+  ICounterMetrics getMetrics();
+
+  // makes the metrics visible over JMX under the given name
+  void registerMetrics(String name);
+
+}
@@ -0,0 +1,25 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+import java.util.Map;
+
+public interface IKeyedCounterRegistry {
+
+  void increment(long key);
+
+  void add(long key, long delta);
+
+  long get(long key);
+
+  void increment(String key);
+
+  void add(String key, long delta);
+
+  long get(String key);
+
+  long size();
+
+  KeyedCounterSnapshot snapshot();
+
+  Map<String, Long> snapshotByName();
+
+}
@@ -0,0 +1,59 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+import java.util.Arrays;
+
+// Copy of the long-keyed counters, iterated as a cursor without boxing:
+// while (snapshot.next()) { snapshot.key(); snapshot.value(); }
+public class KeyedCounterSnapshot {
+
+  private long[] keys;
+  private long[] values;
+  private int size;
+
+  private int position = -1;
+
+  public KeyedCounterSnapshot(int expectedSize) {
+    int capacity = Math.max(16, expectedSize);
+
+    this.keys = new long[capacity];
+    this.values = new long[capacity];
+  }
+
+  public void append(long key, long value) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+
+    keys[size] = key;
+    values[size] = value;
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean next() {
+    if ((position + 1) >= size) {
+      return false;
+    }
+
+    position++;
+    return true;
+  }
+
+  public long key() {
+    return keys[position];
+  }
+
+  public long value() {
+    return values[position];
+  }
+
+  // moves the cursor back to the beginning
+  public void rewind() {
+    position = -1;
+  }
+
+}
@@ -0,0 +1,15 @@
+package tr.unvercanunlu.concurrency.race_condition.counter;
+
+// Access mode of VarHandle based counters, from weakest to strongest
+public enum MemoryOrder {
+
+  // atomic and coherent per variable, no ordering with other variables
+  OPAQUE,
+
+  // reads acquire, writes release
+  ACQUIRE_RELEASE,
+
+  // sequentially consistent, like volatile and AtomicLong
+  VOLATILE
+
+}
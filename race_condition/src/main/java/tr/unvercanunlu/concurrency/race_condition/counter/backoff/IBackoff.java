@@ -0,0 +1,13 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.backoff;
+
+// What a CAS loop does between a failed attempt and the next one
+public interface IBackoff {
+
+  // called after the given (1-based) failed attempt
+  void onFailure(int attempt);
+
+  // called once the operation succeeded after the given number of failed attempts
+  default void onSuccess(int failures) {
+  }
+
+}
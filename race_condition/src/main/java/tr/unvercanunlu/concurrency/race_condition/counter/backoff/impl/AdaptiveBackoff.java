@@ -0,0 +1,67 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.IBackoff;
+
+// Pause in proportion to the contention measured by the counter itself
+// 1) Measurement:
+// - A moving average of "did this operation fail at least once", as a fraction of 1024.
+// - The average is only written when it changes, so an uncontended counter never writes it.
+// 2) Reaction:
+// - Low contention: a single spin-wait hint.
+// - Higher contention: random exponential pause scaled by the failure rate.
+// - Very high contention: the thread yields its core after a few attempts.
+public class AdaptiveBackoff implements IBackoff {
+
+  private static final int SCALE = 1024;
+
+  // weight of a new sample: 1/16
+  private static final int SMOOTHING_SHIFT = 4;
+
+  private static final int LOW_CONTENTION = SCALE / 16;
+  private static final int HIGH_CONTENTION = SCALE * 3 / 4;
+  private static final int YIELD_ATTEMPT = 4;
+  private static final int MAX_SPINS = 1024;
+
+  // updated without synchronization, a lost update only delays the average
+  private volatile int failureRate;
+
+  @Override
+  public void onFailure(int attempt) {
+    int rate = failureRate;
+
+    if (rate < LOW_CONTENTION) {
+      Thread.onSpinWait();
+      return;
+    }
+
+    if ((rate >= HIGH_CONTENTION) && (attempt >= YIELD_ATTEMPT)) {
+      Thread.yield();
+      return;
+    }
+
+    long limit = Math.max(1, Math.min(MAX_SPINS, ((long) rate << Math.min(attempt, 20)) / SCALE));
+    long spins = ThreadLocalRandom.current().nextLong(limit) + 1;
+
+    for (long i = 0; i < spins; i++) {
+      Thread.onSpinWait();
+    }
+  }
+
+  @Override
+  public void onSuccess(int failures) {
+    int rate = failureRate;
+    int sample = (failures > 0) ? SCALE : 0;
+    int updated = rate + ((sample - rate) >> SMOOTHING_SHIFT);
+
+    if (updated != rate) {
+      failureRate = updated;
+    }
+  }
+
+  // current failure rate between 0 and 1
+  public double getFailureRate() {
+    return failureRate / (double) SCALE;
+  }
+
+}
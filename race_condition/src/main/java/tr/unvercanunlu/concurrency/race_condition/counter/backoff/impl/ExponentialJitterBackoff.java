@@ -0,0 +1,39 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.IBackoff;
+
+// Double the pause limit with every failed attempt and pause a random part of it
+// - Randomness keeps threads which failed together from retrying together.
+public class ExponentialJitterBackoff implements IBackoff {
+
+  private static final int DEFAULT_MIN_SPINS = 1;
+  private static final int DEFAULT_MAX_SPINS = 1024;
+
+  private final int minSpins;
+  private final int maxSpins;
+
+  public ExponentialJitterBackoff() {
+    this(DEFAULT_MIN_SPINS, DEFAULT_MAX_SPINS);
+  }
+
+  public ExponentialJitterBackoff(int minSpins, int maxSpins) {
+    if ((minSpins <= 0) || (maxSpins < minSpins)) {
+      throw new IllegalArgumentException("Spin limits not valid!");
+    }
+
+    this.minSpins = minSpins;
+    this.maxSpins = maxSpins;
+  }
+
+  @Override
+  public void onFailure(int attempt) {
+    long limit = Math.min(maxSpins, (long) minSpins << Math.min(attempt, 31));
+    long spins = ThreadLocalRandom.current().nextLong(limit) + 1;
+
+    for (long i = 0; i < spins; i++) {
+      Thread.onSpinWait();
+    }
+  }
+
+}
@@ -0,0 +1,13 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl;
+
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.IBackoff;
+
+// Retry immediately, like AtomicLong's own loops
+public class NoBackoff implements IBackoff {
+
+  @Override
+  public void onFailure(int attempt) {
+    // retry at once
+  }
+
+}
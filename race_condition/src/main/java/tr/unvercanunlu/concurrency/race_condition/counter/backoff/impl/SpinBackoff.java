@@ -0,0 +1,25 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.backoff.impl;
+
+import lombok.RequiredArgsConstructor;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.IBackoff;
+
+// Pause a fixed number of spin-wait hints, which lets the other hardware thread of the core run
+@RequiredArgsConstructor
+public class SpinBackoff implements IBackoff {
+
+  private static final int DEFAULT_SPINS = 1;
+
+  private final int spins;
+
+  public SpinBackoff() {
+    this(DEFAULT_SPINS);
+  }
+
+  @Override
+  public void onFailure(int attempt) {
+    for (int i = 0; i < spins; i++) {
+      Thread.onSpinWait();
+    }
+  }
+
+}
@@ -0,0 +1,51 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Spread contention over multiple cells with the JDK's LongAdder, the baseline for StripedCounter
+public class AdderCounter implements ICounter {
+
+  private final LongAdder value = new LongAdder();
+
+  @Override
+  public long retrieve() {
+    return value.sum();
+  }
+
+  @Override
+  public void increment() {
+    value.increment();
+  }
+
+  @Override
+  public void decrement() {
+    value.decrement();
+  }
+
+  @Override
+  public void add(long delta) {
+    value.add(delta);
+  }
+
+  // not atomic: the sum may include concurrent updates of other threads
+  @Override
+  public long addAndGet(long delta) {
+    value.add(delta);
+    return value.sum();
+  }
+
+  // not atomic: the sum may include concurrent updates of other threads
+  @Override
+  public long getAndAdd(long delta) {
+    long previous = value.sum();
+    value.add(delta);
+    return previous;
+  }
+
+  @Override
+  public void reset() {
+    value.reset();
+  }
+
+}
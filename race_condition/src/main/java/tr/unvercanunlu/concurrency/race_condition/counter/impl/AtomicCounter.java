@@ -23,6 +23,21 @@ public class AtomicCounter implements ICounter {
     value.getAndDecrement();
   }
 
+  @Override
+  public void add(long delta) {
+    value.getAndAdd(delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    return value.addAndGet(delta);
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    return value.getAndAdd(delta);
+  }
+
   @Override
   public void reset() {
     value.set(0);
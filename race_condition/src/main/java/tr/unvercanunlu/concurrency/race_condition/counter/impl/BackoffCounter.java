@@ -0,0 +1,69 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.backoff.IBackoff;
+
+// Ensure atomic operations with an explicit CAS loop and a pluggable backoff between failed attempts
+public class BackoffCounter implements ICounter {
+
+  private final AtomicLong value = new AtomicLong(0);
+
+  private final IBackoff backoff;
+
+  public BackoffCounter(IBackoff backoff) {
+    if (backoff == null) {
+      throw new IllegalArgumentException("Backoff not valid!");
+    }
+
+    this.backoff = backoff;
+  }
+
+  @Override
+  public long retrieve() {
+    return value.get();
+  }
+
+  @Override
+  public void increment() {
+    addAndGet(1);
+  }
+
+  @Override
+  public void decrement() {
+    addAndGet(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    addAndGet(delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    return getAndAdd(delta) + delta;
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    int failures = 0;
+
+    while (true) {
+      long current = value.get();
+
+      if (value.compareAndSet(current, current + delta)) {
+        backoff.onSuccess(failures);
+        return current;
+      }
+
+      failures++;
+      backoff.onFailure(failures);
+    }
+  }
+
+  @Override
+  public void reset() {
+    value.set(0);
+  }
+
+}
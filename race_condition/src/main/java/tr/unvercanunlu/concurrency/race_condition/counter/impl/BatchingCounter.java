@@ -0,0 +1,151 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import tr.unvercanunlu.concurrency.race_condition.counter.IBatchingCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Client-side batching in front of another counter
+// 1) Local accumulation:
+// - Each thread accumulates its changes locally and applies them to the delegate with a single add().
+// - A batch is flushed after maxOperations changes or when it is older than maxDelayMicros.
+// 2) Visibility:
+// - Pending changes of other threads are not visible in retrieve() until they are flushed.
+// - Every thread has to call flush() before it finishes, otherwise its pending changes are lost.
+// 3) Reset:
+// - Batches belong to their threads, so reset() does not touch them directly, it starts a new epoch.
+// - A batch from an older epoch is dropped the next time its thread uses it, so reset() clears all batches.
+public class BatchingCounter implements IBatchingCounter {
+
+  private static final int DEFAULT_MAX_OPERATIONS = 64;
+  private static final long DEFAULT_MAX_DELAY_MICROS = 100;
+
+  private final AtomicLong epoch = new AtomicLong(0);
+
+  private final ICounter delegate;
+  private final int maxOperations;
+  private final long maxDelayNanos;
+
+  private final ThreadLocal<Batch> batch = ThreadLocal.withInitial(Batch::new);
+
+  public BatchingCounter() {
+    this(new AtomicCounter(), DEFAULT_MAX_OPERATIONS, DEFAULT_MAX_DELAY_MICROS);
+  }
+
+  public BatchingCounter(ICounter delegate, int maxOperations, long maxDelayMicros) {
+    if (delegate == null) {
+      throw new IllegalArgumentException("Delegate counter not valid!");
+    }
+
+    if (maxOperations <= 0) {
+      throw new IllegalArgumentException("Batch size not valid!");
+    }
+
+    if (maxDelayMicros < 0) {
+      throw new IllegalArgumentException("Batch delay not valid!");
+    }
+
+    this.delegate = delegate;
+    this.maxOperations = maxOperations;
+    this.maxDelayNanos = maxDelayMicros * 1_000;
+  }
+
+  // includes pending changes of the current thread only
+  @Override
+  public long retrieve() {
+    flush();
+    return delegate.retrieve();
+  }
+
+  @Override
+  public void increment() {
+    add(1);
+  }
+
+  @Override
+  public void decrement() {
+    add(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    Batch current = currentBatch();
+
+    long now = System.nanoTime();
+
+    if (current.operations == 0) {
+      current.startedAt = now;
+    }
+
+    current.delta += delta;
+    current.operations++;
+
+    if ((current.operations >= maxOperations) || ((now - current.startedAt) >= maxDelayNanos)) {
+      flush(current);
+    }
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    Batch current = currentBatch();
+    long pending = current.delta;
+    current.clear();
+
+    return delegate.addAndGet(pending + delta);
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    Batch current = currentBatch();
+    long pending = current.delta;
+    current.clear();
+
+    return delegate.getAndAdd(pending + delta) + pending;
+  }
+
+  @Override
+  public void reset() {
+    epoch.incrementAndGet();
+    delegate.reset();
+  }
+
+  @Override
+  public void flush() {
+    flush(currentBatch());
+  }
+
+  // batch of the current thread, emptied if it was filled before the last reset
+  private Batch currentBatch() {
+    Batch current = batch.get();
+    long currentEpoch = epoch.get();
+
+    if (current.epoch != currentEpoch) {
+      current.clear();
+      current.epoch = currentEpoch;
+    }
+
+    return current;
+  }
+
+  private void flush(Batch current) {
+    if (current.delta != 0) {
+      delegate.add(current.delta);
+    }
+
+    current.clear();
+  }
+
+  private static class Batch {
+
+    private long delta;
+    private int operations;
+    private long startedAt;
+    private long epoch;
+
+    private void clear() {
+      delta = 0;
+      operations = 0;
+    }
+
+  }
+
+}
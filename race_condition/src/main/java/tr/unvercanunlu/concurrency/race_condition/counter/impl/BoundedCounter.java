@@ -0,0 +1,299 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+import tr.unvercanunlu.concurrency.race_condition.counter.IBoundedCounter;
+
+// Lock-free counter bounded to [min, max]
+// 1) Central value:
+// - Every change is a CAS which checks the bound first, so the central value never drops below min.
+// 2) Striped leases (far from min):
+// - A thread moves a batch from the central value into its padded stripe and serves further acquires from there.
+// - Near min no batch is leased, permits are not stranded in stripes; a failing acquire drains the stripes first.
+// 3) Releases:
+// - Always go to the central value, checked against max with central + stripes, which never underestimates the value.
+// - A stripe being refilled or drained is locked and counted with what it is about to hold,
+//   a release which fails only because of such a stripe waits until the lock is released.
+// - The central word packs a version next to the value, refill and drain bump it when they move permits,
+//   so a release validates with one CAS that neither the value nor the stripes' total moved since it was read (no ABA).
+// - The packing leaves 48 bits for the value, so max - min must stay below 2^48.
+public class BoundedCounter implements IBoundedCounter {
+
+  // 8 longs = 64 bytes = one cache line
+  private static final int PADDING = 8;
+
+  private static final long DEFAULT_LEASE = 32;
+
+  // central word: version in the high 16 bits, value - min in the low 48 bits
+  private static final int VALUE_BITS = 48;
+  private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
+  // spins before yielding the core to the thread holding a stripe lock
+  private static final int SPINS = 64;
+
+  @Getter
+  private final long min;
+
+  @Getter
+  private final long max;
+
+  private final long lease;
+  private final int stripeMask;
+
+  // packed version and value, see pack()
+  private final AtomicLong central;
+
+  // >= 0: leased permits, < 0: locked, holding locked(value) permits
+  private final AtomicLongArray stripes;
+
+  public BoundedCounter(long min, long max, long initial) {
+    this(min, max, initial, Runtime.getRuntime().availableProcessors(), DEFAULT_LEASE);
+  }
+
+  public BoundedCounter(long min, long max, long initial, int stripeCount, long lease) {
+    if (min > max) {
+      throw new IllegalArgumentException("Bounds not valid!");
+    }
+
+    // also catches an overflowing range
+    if (((max - min) < 0) || ((max - min) > VALUE_MASK)) {
+      throw new IllegalArgumentException("Bounds not valid: range is larger than 2^48 - 1!");
+    }
+
+    if ((initial < min) || (initial > max)) {
+      throw new IllegalArgumentException("Initial value not valid!");
+    }
+
+    if ((stripeCount <= 0) || (lease <= 0)) {
+      throw new IllegalArgumentException("Stripe settings not valid!");
+    }
+
+    int size = Integer.highestOneBit(stripeCount);
+
+    if (size < stripeCount) {
+      size <<= 1;
+    }
+
+    this.min = min;
+    this.max = max;
+    this.lease = lease;
+    this.stripeMask = size - 1;
+    this.central = new AtomicLong(pack(0, initial));
+
+    // one extra line in front keeps the first stripe away from the array header
+    this.stripes = new AtomicLongArray((size + 1) * PADDING);
+  }
+
+  // not an atomic snapshot under concurrent updates
+  @Override
+  public long retrieve() {
+    return value(central.get()) + leased();
+  }
+
+  @Override
+  public boolean tryIncrement() {
+    return tryRelease(1);
+  }
+
+  @Override
+  public boolean tryDecrement() {
+    return tryAcquire(1);
+  }
+
+  @Override
+  public boolean tryAcquire(long n) {
+    validate(n);
+
+    int stripe = stripe();
+    long current = stripes.get(stripe);
+
+    // fast path: served from the leased permits of this stripe
+    if ((current >= n) && stripes.compareAndSet(stripe, current, current - n)) {
+      return true;
+    }
+
+    if ((current >= 0) && refill(stripe, current, n)) {
+      return true;
+    }
+
+    if (acquireCentral(n)) {
+      return true;
+    }
+
+    // near min: return the leased permits to the central value and try again
+    drain();
+
+    return acquireCentral(n);
+  }
+
+  @Override
+  public boolean tryRelease(long n) {
+    validate(n);
+
+    int spins = 0;
+
+    while (true) {
+      long word = central.get();
+      long current = value(word);
+      long leased = 0;
+      boolean locked = false;
+
+      for (int i = 0; i <= stripeMask; i++) {
+        long stripe = stripes.get(index(i));
+
+        if (stripe < 0) {
+          locked = true;
+          leased += unlocked(stripe);
+        } else {
+          leased += stripe;
+        }
+      }
+
+      // refill and drain bump the version of the central word, so the CAS below also fails if permits moved to or from a stripe
+      if ((current + leased) > (max - n)) {
+        if (!locked) {
+          return false;
+        }
+
+        // a locked stripe may be counted too high, wait until it settles
+        if (++spins % SPINS == 0) {
+          Thread.yield();
+        } else {
+          Thread.onSpinWait();
+        }
+
+        continue;
+      }
+
+      if (central.compareAndSet(word, withValue(word, current + n))) {
+        return true;
+      }
+    }
+  }
+
+  // takes n plus a new lease from the central value for the stripe, false if the stripe is busy or the value is too low
+  private boolean refill(int stripe, long current, long n) {
+    long available = value(central.get()) - min;
+
+    // far from min: lease a batch, otherwise take only the missing part
+    long need = (available >= ((n + lease) * (stripeMask + 1))) ? (n - current + lease) : (n - current);
+
+    if ((need > available) || !stripes.compareAndSet(stripe, current, locked(current + need))) {
+      return false;
+    }
+
+    while (true) {
+      long word = central.get();
+      long value = value(word);
+
+      if ((value - need) < min) {
+        // unlock without the new lease
+        stripes.set(stripe, current);
+        return false;
+      }
+
+      if (central.compareAndSet(word, moved(word, value - need))) {
+        stripes.set(stripe, current + need - n);
+        return true;
+      }
+    }
+  }
+
+  private boolean acquireCentral(long n) {
+    while (true) {
+      long word = central.get();
+      long value = value(word);
+
+      if ((value - n) < min) {
+        return false;
+      }
+
+      if (central.compareAndSet(word, withValue(word, value - n))) {
+        return true;
+      }
+    }
+  }
+
+  // moves the leased permits of all unlocked stripes back to the central value
+  private void drain() {
+    for (int i = 0; i <= stripeMask; i++) {
+      int stripe = index(i);
+      long current = stripes.get(stripe);
+
+      if ((current > 0) && stripes.compareAndSet(stripe, current, locked(current))) {
+        while (true) {
+          long word = central.get();
+
+          if (central.compareAndSet(word, moved(word, value(word) + current))) {
+            break;
+          }
+        }
+
+        stripes.set(stripe, 0);
+      }
+    }
+  }
+
+  // leased permits, locked stripes counted with what they are about to hold
+  private long leased() {
+    long sum = 0;
+
+    for (int i = 0; i <= stripeMask; i++) {
+      long current = stripes.get(index(i));
+      sum += (current >= 0) ? current : unlocked(current);
+    }
+
+    return sum;
+  }
+
+  private int stripe() {
+    return index((int) (mix(Thread.currentThread().getId()) & stripeMask));
+  }
+
+  private void validate(long n) {
+    if (n <= 0) {
+      throw new IllegalArgumentException("Permit count not valid!");
+    }
+  }
+
+  private long pack(long version, long value) {
+    return (version << VALUE_BITS) | (value - min);
+  }
+
+  private long value(long word) {
+    return min + (word & VALUE_MASK);
+  }
+
+  // same version: the stripes' total did not change
+  private long withValue(long word, long value) {
+    return (word & ~VALUE_MASK) | (value - min);
+  }
+
+  // next version: permits moved between the central value and a stripe, the version wraps around after 2^16 moves
+  private long moved(long word, long value) {
+    return pack((word >>> VALUE_BITS) + 1, value);
+  }
+
+  private static long locked(long permits) {
+    return -permits - 1;
+  }
+
+  private static long unlocked(long value) {
+    return -value - 1;
+  }
+
+  private static int index(int stripe) {
+    return (stripe + 1) * PADDING;
+  }
+
+  // murmur3 finalizer, spreads consecutive thread ids over the stripes
+  private static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return h;
+  }
+
+}
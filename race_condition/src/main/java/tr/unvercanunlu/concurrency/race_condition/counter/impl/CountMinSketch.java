@@ -0,0 +1,272 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICountMinSketch;
+import tr.unvercanunlu.concurrency.race_condition.counter.KeyedCounterSnapshot;
+
+// Approximate counters for unbounded key spaces in fixed memory
+// 1) Count-Min:
+// - depth rows of width cells, a key is hashed to one cell per row, its estimate is the minimum of those cells.
+// - Estimates never undercount, overcount by at most e / width x total with probability 1 - e^-depth.
+// 2) Update:
+// - Every row cell of the key gets the delta with a plain atomic add, so concurrent adds are never lost.
+// - Conservative update (raise only the cells below estimate + delta) is not used: two threads reading the same
+//   estimate raise the cells to the same value and one add is lost, the sketch would undercount.
+// - Deltas must be positive.
+// 3) Merge:
+// - Sketches with the same width, depth and seed add up cell by cell, so threads can count into their own sketch.
+// 4) Heavy hitters:
+// - Keys whose estimate reaches the volatile threshold enter a small synchronized top-K table.
+// - Updates below the threshold never take the lock.
+public class CountMinSketch implements ICountMinSketch {
+
+  private static final int DEFAULT_WIDTH = 1 << 16;
+  private static final int DEFAULT_DEPTH = 4;
+  private static final int DEFAULT_TOP_K = 16;
+  private static final long DEFAULT_SEED = 0x9E3779B97F4A7C15L;
+
+  private final int width;
+  private final int depth;
+  private final long seed;
+  private final AtomicLongArray cells;
+  private final LongAdder total = new LongAdder();
+
+  // top-K table
+  private final long[] topKeys;
+  private final long[] topCounts;
+  private int topSize;
+  private volatile long threshold;
+
+  public CountMinSketch() {
+    this(DEFAULT_WIDTH, DEFAULT_DEPTH, DEFAULT_TOP_K);
+  }
+
+  public CountMinSketch(int width, int depth, int topK) {
+    this(width, depth, topK, DEFAULT_SEED);
+  }
+
+  public CountMinSketch(int width, int depth, int topK, long seed) {
+    if (width <= 0) {
+      throw new IllegalArgumentException("Width not valid!");
+    }
+
+    if ((depth <= 0) || (((long) width * depth) > Integer.MAX_VALUE)) {
+      throw new IllegalArgumentException("Depth not valid!");
+    }
+
+    if (topK < 0) {
+      throw new IllegalArgumentException("Top-K size not valid!");
+    }
+
+    this.width = width;
+    this.depth = depth;
+    this.seed = seed;
+    this.cells = new AtomicLongArray(width * depth);
+    this.topKeys = new long[topK];
+    this.topCounts = new long[topK];
+  }
+
+  // width and depth for "overcount at most epsilon x total with probability 1 - delta"
+  public static CountMinSketch withError(double epsilon, double delta, int topK) {
+    if ((epsilon <= 0) || (epsilon >= 1)) {
+      throw new IllegalArgumentException("Epsilon not valid!");
+    }
+
+    if ((delta <= 0) || (delta >= 1)) {
+      throw new IllegalArgumentException("Delta not valid!");
+    }
+
+    int width = (int) Math.ceil(Math.E / epsilon);
+    int depth = (int) Math.ceil(Math.log(1 / delta));
+
+    return new CountMinSketch(width, depth, topK);
+  }
+
+  @Override
+  public void increment(long key) {
+    add(key, 1);
+  }
+
+  @Override
+  public void add(long key, long delta) {
+    if (delta <= 0) {
+      throw new IllegalArgumentException("Delta not valid!");
+    }
+
+    total.add(delta);
+
+    // minimum of the updated cells is the estimate right after this add
+    long estimate = Long.MAX_VALUE;
+
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, cells.addAndGet(index(row, key), delta));
+    }
+
+    if ((topKeys.length > 0) && (estimate >= threshold)) {
+      offer(key, estimate);
+    }
+  }
+
+  @Override
+  public long estimate(long key) {
+    long min = Long.MAX_VALUE;
+
+    for (int row = 0; row < depth; row++) {
+      min = Math.min(min, cells.get(index(row, key)));
+    }
+
+    return min;
+  }
+
+  @Override
+  public long total() {
+    return total.sum();
+  }
+
+  @Override
+  public long errorBound() {
+    return (long) Math.ceil(Math.E / width * total());
+  }
+
+  // heavy hitters ordered by estimate, highest first
+  @Override
+  public synchronized KeyedCounterSnapshot topK() {
+    int[] order = new int[topSize];
+
+    for (int i = 0; i < topSize; i++) {
+      order[i] = i;
+    }
+
+    // insertion sort, the table is small
+    for (int i = 1; i < topSize; i++) {
+      int current = order[i];
+      int j = i - 1;
+
+      while ((j >= 0) && (topCounts[order[j]] < topCounts[current])) {
+        order[j + 1] = order[j];
+        j--;
+      }
+
+      order[j + 1] = current;
+    }
+
+    KeyedCounterSnapshot snapshot = new KeyedCounterSnapshot(topSize);
+
+    for (int i : order) {
+      snapshot.append(topKeys[i], topCounts[i]);
+    }
+
+    return snapshot;
+  }
+
+  // copy of the current cells, for example to merge without disturbing this sketch
+  public CountMinSketch snapshot() {
+    CountMinSketch copy = new CountMinSketch(width, depth, topKeys.length, seed);
+    copy.merge(this);
+    return copy;
+  }
+
+  // adds the cells of a sketch with the same width, depth and seed into this one
+  public void merge(CountMinSketch other) {
+    if ((other.width != width) || (other.depth != depth) || (other.seed != seed)) {
+      throw new IllegalArgumentException("Sketch not compatible!");
+    }
+
+    for (int i = 0; i < cells.length(); i++) {
+      long value = other.cells.get(i);
+
+      if (value != 0) {
+        cells.getAndAdd(i, value);
+      }
+    }
+
+    total.add(other.total());
+
+    // heavy hitters of the other sketch are re-estimated against the merged cells
+    KeyedCounterSnapshot hitters = other.topK();
+
+    while (hitters.next()) {
+      long key = hitters.key();
+      offer(key, estimate(key));
+    }
+  }
+
+  // bytes used by the cells and the top-K table
+  public long footprint() {
+    return (cells.length() + (topKeys.length * 2L)) * Long.BYTES;
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int depth() {
+    return depth;
+  }
+
+  private synchronized void offer(long key, long count) {
+    int min = -1;
+
+    for (int i = 0; i < topSize; i++) {
+      if (topKeys[i] == key) {
+        topCounts[i] = Math.max(topCounts[i], count);
+        updateThreshold();
+        return;
+      }
+
+      if ((min < 0) || (topCounts[i] < topCounts[min])) {
+        min = i;
+      }
+    }
+
+    if (topSize < topKeys.length) {
+      topKeys[topSize] = key;
+      topCounts[topSize] = count;
+      topSize++;
+
+    } else if (count > topCounts[min]) {
+      topKeys[min] = key;
+      topCounts[min] = count;
+
+    } else {
+      return;
+    }
+
+    updateThreshold();
+  }
+
+  // smallest count in a full table, zero lets every key in while there is room
+  private void updateThreshold() {
+    if (topSize < topKeys.length) {
+      threshold = 0;
+      return;
+    }
+
+    long min = Long.MAX_VALUE;
+
+    for (int i = 0; i < topSize; i++) {
+      min = Math.min(min, topCounts[i]);
+    }
+
+    threshold = min;
+  }
+
+  private int index(int row, long key) {
+    long hash = mix(key ^ (seed * (row + 1)));
+
+    return (row * width) + (int) ((hash >>> 1) % width);
+  }
+
+  // murmur3 finalizer
+  private static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+}
@@ -21,6 +21,24 @@ public class Counter implements ICounter {
     value -= 1;
   }
 
+  @Override
+  public void add(long delta) {
+    value += delta;
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    value += delta;
+    return value;
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    long previous = value;
+    value += delta;
+    return previous;
+  }
+
   @Override
   public void reset() {
     value = 0;
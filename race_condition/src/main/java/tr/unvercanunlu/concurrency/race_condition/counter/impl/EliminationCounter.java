@@ -0,0 +1,132 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Cancel concurrent increment/decrement pairs (elimination backoff)
+// 1) Central value:
+// - Every operation first tries a single CAS on the shared value.
+// 2) Elimination:
+// - After a failed CAS, an increment waits briefly in a random slot of the elimination array for a decrement, and vice versa.
+// - A matched pair returns without touching the shared value, +1 and -1 take effect at the same instant.
+// - retrieve() reads the shared value, which is always the result of a sequence of complete operations.
+// 3) Scope:
+// - Only increment() and decrement() eliminate, add() and the returning methods always use the shared value.
+public class EliminationCounter implements ICounter {
+
+  // 16 ints = 64 bytes = one cache line
+  private static final int PADDING = 16;
+
+  // slot states
+  private static final int EMPTY = 0;
+  private static final int WAIT_INCREMENT = 1;
+  private static final int WAIT_DECREMENT = 2;
+  private static final int MATCHED = 3;
+
+  // spins waiting for a partner in a slot
+  private static final int SPINS = 32;
+
+  private final AtomicLong value = new AtomicLong(0);
+
+  private final int slotCount;
+  private final AtomicIntegerArray slots;
+
+  public EliminationCounter() {
+    this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+  }
+
+  public EliminationCounter(int slotCount) {
+    if (slotCount <= 0) {
+      throw new IllegalArgumentException("Slot count not valid!");
+    }
+
+    this.slotCount = slotCount;
+
+    // one extra line in front keeps the first slot away from the array header
+    this.slots = new AtomicIntegerArray((slotCount + 1) * PADDING);
+  }
+
+  @Override
+  public long retrieve() {
+    return value.get();
+  }
+
+  @Override
+  public void increment() {
+    update(1, WAIT_INCREMENT, WAIT_DECREMENT);
+  }
+
+  @Override
+  public void decrement() {
+    update(-1, WAIT_DECREMENT, WAIT_INCREMENT);
+  }
+
+  @Override
+  public void add(long delta) {
+    value.getAndAdd(delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    return value.addAndGet(delta);
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    return value.getAndAdd(delta);
+  }
+
+  @Override
+  public void reset() {
+    value.set(0);
+  }
+
+  private void update(long delta, int waiting, int partner) {
+    while (true) {
+      long current = value.get();
+
+      if (value.compareAndSet(current, current + delta)) {
+        return;
+      }
+
+      // contended value: try to meet an opposite operation
+      if (eliminate(waiting, partner)) {
+        return;
+      }
+    }
+  }
+
+  private boolean eliminate(int waiting, int partner) {
+    int slot = (ThreadLocalRandom.current().nextInt(slotCount) + 1) * PADDING;
+    int state = slots.get(slot);
+
+    // an opposite operation is already waiting here
+    if (state == partner) {
+      return slots.compareAndSet(slot, partner, MATCHED);
+    }
+
+    if ((state != EMPTY) || !slots.compareAndSet(slot, EMPTY, waiting)) {
+      return false;
+    }
+
+    for (int i = 0; i < SPINS; i++) {
+      if (slots.get(slot) == MATCHED) {
+        slots.set(slot, EMPTY);
+        return true;
+      }
+
+      Thread.onSpinWait();
+    }
+
+    // no partner came: withdraw, unless one matched meanwhile
+    if (slots.compareAndSet(slot, waiting, EMPTY)) {
+      return false;
+    }
+
+    slots.set(slot, EMPTY);
+    return true;
+  }
+
+}
@@ -0,0 +1,218 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Let one thread apply the updates of all threads (flat combining)
+// 1) Publishing:
+// - A thread claims a padded slot, writes its delta there and marks it pending.
+// - Slots are a fixed array claimed per operation, so short-lived threads do not grow a publication list.
+// 2) Combining:
+// - The thread which wins the combiner flag applies every pending slot in one pass and writes back the results.
+// - The shared value is published before a slot is marked done, so a finished operation is always visible to retrieve().
+// - The others spin on their own slot, so the shared value is touched by one core only.
+// 3) Trade-off:
+// - Every operation waits for a combiner, so it pays off only under heavy contention.
+public class FlatCombiningCounter implements ICounter {
+
+  // 8 longs = 64 bytes = one cache line
+  private static final int PADDING = 8;
+
+  // slot layout: state, delta, result
+  private static final int DELTA = 1;
+  private static final int RESULT = 2;
+
+  // slot states
+  private static final long FREE = 0;
+  private static final long CLAIMED = 1;
+  private static final long PENDING = 2;
+  private static final long DONE = 3;
+
+  // spins before yielding the core to the combiner
+  private static final int SPINS = 64;
+
+  private final int mask;
+  private final AtomicLongArray slots;
+  private final AtomicBoolean combining = new AtomicBoolean(false);
+
+  // written only by the combiner
+  private volatile long value;
+
+  // per-thread probe used to choose a slot
+  private final ThreadLocal<int[]> probe = ThreadLocal.withInitial(() -> new int[]{mix((int) Thread.currentThread().getId())});
+
+  public FlatCombiningCounter() {
+    this(Runtime.getRuntime().availableProcessors() * 2);
+  }
+
+  public FlatCombiningCounter(int slotCount) {
+    if (slotCount <= 0) {
+      throw new IllegalArgumentException("Slot count not valid!");
+    }
+
+    int size = Integer.highestOneBit(slotCount);
+
+    if (size < slotCount) {
+      size <<= 1;
+    }
+
+    this.mask = size - 1;
+
+    // one extra line in front keeps the first slot away from the array header
+    this.slots = new AtomicLongArray((size + 1) * PADDING);
+  }
+
+  @Override
+  public long retrieve() {
+    return value;
+  }
+
+  @Override
+  public void increment() {
+    apply(1);
+  }
+
+  @Override
+  public void decrement() {
+    apply(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    apply(delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    return apply(delta);
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    return apply(delta) - delta;
+  }
+
+  @Override
+  public void reset() {
+    lock();
+
+    try {
+      value = 0;
+      combine();
+
+    } finally {
+      combining.set(false);
+    }
+  }
+
+  // returns the value right after the delta is applied
+  private long apply(long delta) {
+    int slot = claim();
+
+    if (slot < 0) {
+      // every slot is busy: apply directly as the combiner
+      lock();
+
+      try {
+        long result = value + delta;
+        value = result;
+        combine();
+        return result;
+
+      } finally {
+        combining.set(false);
+      }
+    }
+
+    slots.set(slot + DELTA, delta);
+    slots.set(slot, PENDING);
+
+    int spins = 0;
+
+    while (slots.get(slot) != DONE) {
+      if (!combining.get() && combining.compareAndSet(false, true)) {
+        try {
+          combine();
+
+        } finally {
+          combining.set(false);
+        }
+
+      } else if (++spins % SPINS == 0) {
+        Thread.yield();
+
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+
+    long result = slots.get(slot + RESULT);
+    slots.set(slot, FREE);
+
+    return result;
+  }
+
+  // one pass over all slots, must hold the combiner flag
+  private void combine() {
+    long current = value;
+
+    for (int i = 0; i <= mask; i++) {
+      int slot = index(i);
+
+      if (slots.get(slot) == PENDING) {
+        current += slots.get(slot + DELTA);
+
+        // published before DONE: once the owner returns, retrieve() already includes its delta
+        value = current;
+
+        slots.set(slot + RESULT, current);
+        slots.set(slot, DONE);
+      }
+    }
+  }
+
+  // index of a claimed slot, -1 if all slots are taken
+  private int claim() {
+    int[] threadProbe = probe.get();
+
+    for (int attempt = 0; attempt <= mask; attempt++) {
+      int slot = index(threadProbe[0] & mask);
+
+      if ((slots.get(slot) == FREE) && slots.compareAndSet(slot, FREE, CLAIMED)) {
+        return slot;
+      }
+
+      // taken slot: move this thread to another slot
+      threadProbe[0] = mix(threadProbe[0] + 1);
+    }
+
+    return -1;
+  }
+
+  private void lock() {
+    int spins = 0;
+
+    while (!combining.compareAndSet(false, true)) {
+      if (++spins % SPINS == 0) {
+        Thread.yield();
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+  private static int index(int slot) {
+    return (slot + 1) * PADDING;
+  }
+
+  // xorshift step, spreads consecutive thread ids over the slots
+  private static int mix(int value) {
+    int x = (value == 0) ? 0x9E3779B9 : value;
+    x ^= x << 13;
+    x ^= x >>> 17;
+    x ^= x << 5;
+    return x;
+  }
+
+}
@@ -0,0 +1,90 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import tr.unvercanunlu.concurrency.race_condition.counter.IInstrumentedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.metric.ICounterMetrics;
+import tr.unvercanunlu.concurrency.race_condition.counter.metric.impl.CounterMetrics;
+
+// AtomicCounter with contention metrics
+// - Updates use an explicit CAS loop, so every failed CAS (another thread won the race) is counted.
+// - AtomicCounter uses getAndAdd, which never fails on x86 (LOCK XADD); the failures here show how often the cache line was stolen.
+// - The CAS loop runs with metrics disabled too, only the recording is skipped; so enabled vs disabled shows the cost of the recording alone.
+public class InstrumentedAtomicCounter implements IInstrumentedCounter {
+
+  private final AtomicLong value = new AtomicLong(0);
+
+  private final CounterMetrics metrics;
+
+  public InstrumentedAtomicCounter() {
+    this(true);
+  }
+
+  public InstrumentedAtomicCounter(boolean enabled) {
+    this.metrics = new CounterMetrics(enabled);
+  }
+
+  @Override
+  public ICounterMetrics getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public void registerMetrics(String name) {
+    metrics.register(name);
+  }
+
+  @Override
+  public long retrieve() {
+    if (metrics.isEnabled()) {
+      metrics.recordOperation();
+    }
+
+    return value.get();
+  }
+
+  @Override
+  public void increment() {
+    getAndAdd(1);
+  }
+
+  @Override
+  public void decrement() {
+    getAndAdd(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    getAndAdd(delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    return getAndAdd(delta) + delta;
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    long failures = 0;
+
+    while (true) {
+      long current = value.get();
+
+      if (value.compareAndSet(current, current + delta)) {
+        if (metrics.isEnabled()) {
+          metrics.recordCasFailures(failures);
+          metrics.recordOperation();
+        }
+
+        return current;
+      }
+
+      failures++;
+    }
+  }
+
+  @Override
+  public void reset() {
+    value.set(0);
+  }
+
+}
@@ -0,0 +1,117 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import tr.unvercanunlu.concurrency.race_condition.counter.IInstrumentedCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.metric.ICounterMetrics;
+import tr.unvercanunlu.concurrency.race_condition.counter.metric.impl.CounterMetrics;
+
+// LockedCounter with contention metrics
+// - Wait time: from requesting the monitor until entering it (time spent blocked by other threads).
+// - Hold time: from entering the monitor until leaving it.
+// - With metrics disabled, it behaves like LockedCounter.
+public class InstrumentedLockedCounter implements IInstrumentedCounter {
+
+  private final Object lock = new Object();
+
+  private long value = 0;
+
+  private final CounterMetrics metrics;
+
+  public InstrumentedLockedCounter() {
+    this(true);
+  }
+
+  public InstrumentedLockedCounter(boolean enabled) {
+    this.metrics = new CounterMetrics(enabled);
+  }
+
+  @Override
+  public ICounterMetrics getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public void registerMetrics(String name) {
+    metrics.register(name);
+  }
+
+  @Override
+  public long retrieve() {
+    if (!metrics.isEnabled()) {
+      synchronized (lock) {
+        return value;
+      }
+    }
+
+    long requested = System.nanoTime();
+    long acquired;
+    long released;
+    long current;
+
+    synchronized (lock) {
+      acquired = System.nanoTime();
+      current = value;
+      released = System.nanoTime();
+    }
+
+    metrics.recordLock(acquired - requested, released - acquired);
+    metrics.recordOperation();
+
+    return current;
+  }
+
+  @Override
+  public void increment() {
+    getAndAdd(1);
+  }
+
+  @Override
+  public void decrement() {
+    getAndAdd(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    getAndAdd(delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    return getAndAdd(delta) + delta;
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    if (!metrics.isEnabled()) {
+      synchronized (lock) {
+        long previous = value;
+        value += delta;
+        return previous;
+      }
+    }
+
+    long requested = System.nanoTime();
+    long acquired;
+    long released;
+    long previous;
+
+    synchronized (lock) {
+      acquired = System.nanoTime();
+      previous = value;
+      value += delta;
+      released = System.nanoTime();
+    }
+
+    metrics.recordLock(acquired - requested, released - acquired);
+    metrics.recordOperation();
+
+    return previous;
+  }
+
+  @Override
+  public void reset() {
+    synchronized (lock) {
+      value = 0;
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import tr.unvercanunlu.concurrency.race_condition.collection.ConcurrentLongLongMap;
+import tr.unvercanunlu.concurrency.race_condition.collection.ConcurrentStringIdMap;
+import tr.unvercanunlu.concurrency.race_condition.counter.IKeyedCounterRegistry;
+import tr.unvercanunlu.concurrency.race_condition.counter.KeyedCounterSnapshot;
+
+// Registry of counters for millions of keys
+// 1) Long keys:
+// - Stored in a primitive open-addressing map, no Long, no counter object per key.
+// 2) String keys:
+// - Each name gets a numeric id once from a primitive name to id table, its counter lives in a second primitive map under that id.
+// - The name String is the only per-key object, there is no boxed Long id and no map node.
+public class KeyedCounterRegistry implements IKeyedCounterRegistry {
+
+  private static final int SEGMENT_COUNT = 64;
+
+  private final ConcurrentLongLongMap counters;
+  private final ConcurrentLongLongMap namedCounters;
+
+  private final ConcurrentStringIdMap ids = new ConcurrentStringIdMap(SEGMENT_COUNT);
+
+  public KeyedCounterRegistry() {
+    this(0);
+  }
+
+  public KeyedCounterRegistry(long expectedKeys) {
+    this.counters = new ConcurrentLongLongMap(SEGMENT_COUNT, expectedKeys);
+    this.namedCounters = new ConcurrentLongLongMap(SEGMENT_COUNT, 0);
+  }
+
+  @Override
+  public void increment(long key) {
+    counters.add(key, 1);
+  }
+
+  @Override
+  public void add(long key, long delta) {
+    counters.add(key, delta);
+  }
+
+  @Override
+  public long get(long key) {
+    return counters.get(key);
+  }
+
+  @Override
+  public void increment(String key) {
+    add(key, 1);
+  }
+
+  @Override
+  public void add(String key, long delta) {
+    namedCounters.add(idOf(key), delta);
+  }
+
+  @Override
+  public long get(String key) {
+    validateName(key);
+
+    long id = ids.get(key);
+
+    return (id == ConcurrentStringIdMap.ABSENT) ? 0 : namedCounters.get(id);
+  }
+
+  @Override
+  public long size() {
+    return counters.size() + ids.size();
+  }
+
+  @Override
+  public KeyedCounterSnapshot snapshot() {
+    KeyedCounterSnapshot snapshot = new KeyedCounterSnapshot((int) Math.min(Integer.MAX_VALUE - 8, counters.size()));
+
+    counters.forEach(snapshot::append);
+
+    return snapshot;
+  }
+
+  @Override
+  public Map<String, Long> snapshotByName() {
+    Map<String, Long> snapshot = new HashMap<>();
+
+    ids.forEach((name, id) -> snapshot.put(name, namedCounters.get(id)));
+
+    return snapshot;
+  }
+
+  // bytes used by the primitive counter tables, excluding the name table
+  public long footprint() {
+    return counters.footprint() + namedCounters.footprint();
+  }
+
+  private long idOf(String key) {
+    validateName(key);
+
+    return ids.intern(key);
+  }
+
+  private void validateName(String key) {
+    if (key == null) {
+      throw new IllegalArgumentException("Key not valid!");
+    }
+  }
+
+}
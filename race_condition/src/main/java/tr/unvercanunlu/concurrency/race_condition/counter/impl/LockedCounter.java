@@ -22,6 +22,24 @@ public class LockedCounter implements ICounter {
     value -= 1;
   }
 
+  @Override
+  public synchronized void add(long delta) {
+    value += delta;
+  }
+
+  @Override
+  public synchronized long addAndGet(long delta) {
+    value += delta;
+    return value;
+  }
+
+  @Override
+  public synchronized long getAndAdd(long delta) {
+    long previous = value;
+    value += delta;
+    return previous;
+  }
+
   @Override
   public synchronized void reset() {
     value = 0;
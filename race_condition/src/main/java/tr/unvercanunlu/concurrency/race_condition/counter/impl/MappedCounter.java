@@ -0,0 +1,55 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.nio.MappedByteBuffer;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Counter stored in a memory-mapped file (see MappedCounterFile)
+// - Survives restarts and is shared by every process which maps the same file.
+// - Updates are atomic read-modify-write operations on the mapped slot, retrieve() is a plain volatile read.
+// - Created by MappedCounterFile.counter(name).
+public class MappedCounter implements ICounter {
+
+  private final MappedByteBuffer buffer;
+  private final int offset;
+
+  MappedCounter(MappedByteBuffer buffer, int offset) {
+    this.buffer = buffer;
+    this.offset = offset;
+  }
+
+  @Override
+  public long retrieve() {
+    return (long) MappedCounterFile.LONG.getVolatile(buffer, offset);
+  }
+
+  @Override
+  public void increment() {
+    add(1);
+  }
+
+  @Override
+  public void decrement() {
+    add(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    MappedCounterFile.LONG.getAndAdd(buffer, offset, delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    return getAndAdd(delta) + delta;
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    return (long) MappedCounterFile.LONG.getAndAdd(buffer, offset, delta);
+  }
+
+  @Override
+  public void reset() {
+    MappedCounterFile.LONG.setVolatile(buffer, offset, 0L);
+  }
+
+}
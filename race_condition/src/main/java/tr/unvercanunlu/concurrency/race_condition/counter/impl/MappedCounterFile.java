@@ -0,0 +1,234 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Counter table in a memory-mapped file, shared by all processes mapping the same file
+// 1) Layout (every block is one 64 byte cache line):
+// - Header: magic, version, capacity.
+// - Name table: one line per counter, state (0 = free, negative owner token = being claimed, n = name length, Long.MIN_VALUE = abandoned) followed by the name.
+// - Value table: one line per counter, the value is the first 8 bytes, so two counters never share a cache line.
+// 2) Atomicity:
+// - Values and states are accessed with VarHandle atomic operations on the mapped memory, which are atomic across processes.
+// - A name is claimed with CAS on its state, the first free line is always taken, so a name is never allocated twice.
+// 3) Recovery:
+// - The header and name lines are marked with a random owner token while they are written, a process dying there leaves the token behind.
+// - Waiters give up after CLAIM_TIMEOUT: the header is taken over with CAS on the stale token and initialized again, a name line is marked abandoned and skipped.
+// - Header fields are only written while still zero, so a slow owner finishing late can not overwrite the values of the recovering process.
+// 4) Durability:
+// - Changes are written back by the operating system, force() writes them immediately.
+public class MappedCounterFile implements AutoCloseable {
+
+  static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private static final int LINE = 64;
+
+  private static final long MAGIC = 0x434F554E54455253L;
+  private static final long VERSION = 1;
+
+  private static final int MAGIC_OFFSET = 0;
+  private static final int VERSION_OFFSET = 8;
+  private static final int CAPACITY_OFFSET = 16;
+
+  private static final long FREE = 0;
+  private static final long ABANDONED = Long.MIN_VALUE;
+  private static final int NAME_OFFSET = 8;
+  private static final int NAME_LENGTH_MAX = LINE - NAME_OFFSET;
+
+  // initializing the header or claiming a name takes microseconds, an owner not done after this is considered dead
+  private static final long CLAIM_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+
+  private MappedCounterFile(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+    this.channel = channel;
+    this.buffer = buffer;
+    this.capacity = capacity;
+  }
+
+  // opens the file, creates it with the given capacity if it does not exist yet
+  public static MappedCounterFile open(Path path, int capacity) throws IOException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity not valid!");
+    }
+
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+    try {
+      // mapping past the end grows the file, new bytes are zero
+      MappedByteBuffer header = channel.map(MapMode.READ_WRITE, 0, LINE);
+
+      long token = ownerToken();
+
+      if (LONG.compareAndSet(header, MAGIC_OFFSET, 0L, token)) {
+        initialize(header, token, capacity);
+      }
+
+      // another process may be initializing the header, or may have died while doing it
+      long magic;
+
+      while ((magic = awaitOwner(header, MAGIC_OFFSET)) < 0) {
+        token = ownerToken();
+
+        if (LONG.compareAndSet(header, MAGIC_OFFSET, magic, token)) {
+          initialize(header, token, capacity);
+        }
+      }
+
+      if ((long) LONG.getVolatile(header, MAGIC_OFFSET) != MAGIC) {
+        throw new IllegalStateException("Counter file not valid: %s".formatted(path));
+      }
+
+      if ((long) LONG.getVolatile(header, VERSION_OFFSET) != VERSION) {
+        throw new IllegalStateException("Counter file version not supported: %s".formatted(path));
+      }
+
+      // the capacity of an existing file wins
+      int fileCapacity = (int) (long) LONG.getVolatile(header, CAPACITY_OFFSET);
+
+      MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, LINE + (2L * fileCapacity * LINE));
+
+      return new MappedCounterFile(channel, buffer, fileCapacity);
+
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  // finds the counter with the given name, allocates it if it does not exist yet
+  public MappedCounter counter(String name) {
+    byte[] bytes = validateName(name);
+
+    for (int slot = 0; slot < capacity; slot++) {
+      int offset = nameOffset(slot);
+
+      long token = ownerToken();
+
+      if (LONG.compareAndSet(buffer, offset, FREE, token)) {
+        buffer.put(offset + NAME_OFFSET, bytes);
+
+        // publishes the name, fails if a waiter gave up on this claim and abandoned the line
+        if (LONG.compareAndSet(buffer, offset, token, (long) bytes.length)) {
+          return new MappedCounter(buffer, valueOffset(slot));
+        }
+
+        continue;
+      }
+
+      // wait until the name is published by the claiming thread or process
+      long state = awaitOwner(buffer, offset);
+
+      if (state < 0) {
+        // the owner did not publish its name in time and is considered dead, the line is skipped by everyone from now on
+        LONG.compareAndSet(buffer, offset, state, ABANDONED);
+        continue;
+      }
+
+      if (matches(offset, state, bytes)) {
+        return new MappedCounter(buffer, valueOffset(slot));
+      }
+    }
+
+    throw new IllegalStateException("Counter table is full!");
+  }
+
+  // writes all changes to the storage device
+  public void force() {
+    buffer.force();
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  // the mapping itself stays valid until the buffer is garbage collected
+  @Override
+  public void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+
+  // fields are only set while still zero and the magic only while the token is still ours, so a late owner changes nothing
+  private static void initialize(MappedByteBuffer header, long token, int capacity) {
+    LONG.compareAndSet(header, VERSION_OFFSET, 0L, VERSION);
+    LONG.compareAndSet(header, CAPACITY_OFFSET, 0L, (long) capacity);
+    LONG.compareAndSet(header, MAGIC_OFFSET, token, MAGIC);
+  }
+
+  // spins while the word holds an owner token, returns the final value or the token that did not change within the timeout
+  private static long awaitOwner(MappedByteBuffer buffer, int offset) {
+    long value = (long) LONG.getVolatile(buffer, offset);
+    long deadline = System.nanoTime() + CLAIM_TIMEOUT_NANOS;
+
+    while ((value < 0) && (value != ABANDONED)) {
+      long current = (long) LONG.getVolatile(buffer, offset);
+
+      if (current != value) {
+        // another owner took over, it gets a full timeout again
+        value = current;
+        deadline = System.nanoTime() + CLAIM_TIMEOUT_NANOS;
+
+      } else if (System.nanoTime() - deadline >= 0) {
+        return value;
+
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+
+    return value;
+  }
+
+  // negative and never ABANDONED
+  private static long ownerToken() {
+    return -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+  }
+
+  private boolean matches(int offset, long length, byte[] bytes) {
+    if (length != bytes.length) {
+      return false;
+    }
+
+    byte[] stored = new byte[bytes.length];
+    buffer.get(offset + NAME_OFFSET, stored);
+
+    return Arrays.equals(stored, bytes);
+  }
+
+  private int nameOffset(int slot) {
+    return LINE + (slot * LINE);
+  }
+
+  private int valueOffset(int slot) {
+    return LINE + (capacity * LINE) + (slot * LINE);
+  }
+
+  private static byte[] validateName(String name) {
+    if ((name == null) || name.isBlank()) {
+      throw new IllegalArgumentException("Counter name not valid!");
+    }
+
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+
+    if (bytes.length > NAME_LENGTH_MAX) {
+      throw new IllegalArgumentException("Counter name not valid: longer than %d bytes!".formatted(NAME_LENGTH_MAX));
+    }
+
+    return bytes;
+  }
+
+}
@@ -0,0 +1,65 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Counter owned by one writer thread, read by any number of threads
+// - The writer updates with a plain read and setRelease, no CAS, no lock; readers use getAcquire.
+// - With more than one writer, updates are lost exactly like in Counter.
+public class SingleWriterCounter implements ICounter {
+
+  private static final VarHandle VALUE;
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup().findVarHandle(SingleWriterCounter.class, "value", long.class);
+
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  // accessed only through VALUE, except the writer's own plain reads
+  private long value;
+
+  @Override
+  public long retrieve() {
+    return (long) VALUE.getAcquire(this);
+  }
+
+  @Override
+  public void increment() {
+    add(1);
+  }
+
+  @Override
+  public void decrement() {
+    add(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    VALUE.setRelease(this, value + delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    long updated = value + delta;
+    VALUE.setRelease(this, updated);
+    return updated;
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    long previous = value;
+    VALUE.setRelease(this, previous + delta);
+    return previous;
+  }
+
+  @Override
+  public void reset() {
+    VALUE.setRelease(this, 0L);
+  }
+
+}
@@ -0,0 +1,96 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.locks.StampedLock;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Ensure only one thread can modify the value at a time, without blocking readers (StampedLock)
+// - retrieve() reads optimistically and validates the stamp, it takes the read lock only if a write happened meanwhile.
+// - Readers never block writers on the optimistic path, which suits counters read far more often than written.
+public class StampedCounter implements ICounter {
+
+  private final StampedLock lock = new StampedLock();
+
+  private long value = 0;
+
+  @Override
+  public long retrieve() {
+    long stamp = lock.tryOptimisticRead();
+    long current = value;
+
+    if (lock.validate(stamp)) {
+      return current;
+    }
+
+    // a write happened meanwhile
+    stamp = lock.readLock();
+
+    try {
+      return value;
+
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void increment() {
+    add(1);
+  }
+
+  @Override
+  public void decrement() {
+    add(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    long stamp = lock.writeLock();
+
+    try {
+      value += delta;
+
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    long stamp = lock.writeLock();
+
+    try {
+      value += delta;
+      return value;
+
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    long stamp = lock.writeLock();
+
+    try {
+      long previous = value;
+      value += delta;
+      return previous;
+
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void reset() {
+    long stamp = lock.writeLock();
+
+    try {
+      value = 0;
+
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Spread contention over multiple cells (LongAdder-style)
+// 1) Striping:
+// - Each thread updates one of several cells instead of a single shared value.
+// - A thread moves to another cell when its CAS on the current cell fails.
+// 2) Padding:
+// - Cells are 64 bytes apart, so two cells never share a cache line.
+// 3) Trade-off:
+// - retrieve() sums all cells, so it is slower than AtomicCounter and not an atomic snapshot under concurrent updates.
+public class StripedCounter implements ICounter {
+
+  // 8 longs = 64 bytes = one cache line
+  private static final int PADDING = 8;
+
+  private final int mask;
+  private final AtomicLongArray cells;
+
+  // per-thread probe used to choose a cell
+  private final ThreadLocal<int[]> probe = ThreadLocal.withInitial(() -> new int[]{mix((int) Thread.currentThread().getId())});
+
+  public StripedCounter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public StripedCounter(int stripes) {
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("Stripe count not valid!");
+    }
+
+    int size = Integer.highestOneBit(stripes);
+
+    if (size < stripes) {
+      size <<= 1;
+    }
+
+    this.mask = size - 1;
+
+    // one extra line in front keeps the first cell away from the array header
+    this.cells = new AtomicLongArray((size + 1) * PADDING);
+  }
+
+  @Override
+  public long retrieve() {
+    long sum = 0;
+
+    for (int i = 0; i <= mask; i++) {
+      sum += cells.get(index(i));
+    }
+
+    return sum;
+  }
+
+  @Override
+  public void increment() {
+    add(1);
+  }
+
+  @Override
+  public void decrement() {
+    add(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    int[] threadProbe = probe.get();
+
+    int index = index(threadProbe[0] & mask);
+    long current = cells.get(index);
+
+    if (!cells.compareAndSet(index, current, current + delta)) {
+      // contended cell: move this thread to another cell and apply unconditionally
+      threadProbe[0] = mix(threadProbe[0] + 1);
+
+      cells.getAndAdd(index(threadProbe[0] & mask), delta);
+    }
+  }
+
+  // not atomic: the sum may include concurrent updates of other threads
+  @Override
+  public long addAndGet(long delta) {
+    add(delta);
+    return retrieve();
+  }
+
+  // not atomic: the sum may include concurrent updates of other threads
+  @Override
+  public long getAndAdd(long delta) {
+    long previous = retrieve();
+    add(delta);
+    return previous;
+  }
+
+  @Override
+  public void reset() {
+    for (int i = 0; i <= mask; i++) {
+      cells.set(index(i), 0);
+    }
+  }
+
+  private static int index(int cell) {
+    return (cell + 1) * PADDING;
+  }
+
+  // xorshift step, spreads consecutive thread ids over the cells
+  private static int mix(int value) {
+    int x = (value == 0) ? 0x9E3779B9 : value;
+    x ^= x << 13;
+    x ^= x >>> 17;
+    x ^= x << 5;
+    return x;
+  }
+
+}
@@ -0,0 +1,102 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import lombok.Getter;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.MemoryOrder;
+
+// Ensure atomic operations with a selectable memory order
+// 1) Atomicity:
+// - Every update is a read-modify-write (CAS or getAndAdd), so no update is lost in any order.
+// 2) Ordering:
+// - OPAQUE: reads with getOpaque, updates with a plain CAS; cheapest, but publishes nothing else.
+// - ACQUIRE_RELEASE: reads with getAcquire, updates with getAndAddRelease.
+// - VOLATILE: same as AtomicCounter.
+// - Weaker orders mainly save fences on retrieve() and on weakly ordered CPUs (ARM); on x86 every RMW is a full fence anyway.
+public class VarHandleCounter implements ICounter {
+
+  private static final VarHandle VALUE;
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup().findVarHandle(VarHandleCounter.class, "value", long.class);
+
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  @Getter
+  private final MemoryOrder order;
+
+  // accessed only through VALUE
+  private long value;
+
+  public VarHandleCounter(MemoryOrder order) {
+    if (order == null) {
+      throw new IllegalArgumentException("Memory order not valid!");
+    }
+
+    this.order = order;
+  }
+
+  @Override
+  public long retrieve() {
+    return switch (order) {
+      case OPAQUE -> (long) VALUE.getOpaque(this);
+      case ACQUIRE_RELEASE -> (long) VALUE.getAcquire(this);
+      case VOLATILE -> (long) VALUE.getVolatile(this);
+    };
+  }
+
+  @Override
+  public void increment() {
+    getAndAdd(1);
+  }
+
+  @Override
+  public void decrement() {
+    getAndAdd(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    getAndAdd(delta);
+  }
+
+  @Override
+  public long addAndGet(long delta) {
+    return getAndAdd(delta) + delta;
+  }
+
+  @Override
+  public long getAndAdd(long delta) {
+    return switch (order) {
+      case OPAQUE -> getAndAddOpaque(delta);
+      case ACQUIRE_RELEASE -> (long) VALUE.getAndAddRelease(this, delta);
+      case VOLATILE -> (long) VALUE.getAndAdd(this, delta);
+    };
+  }
+
+  @Override
+  public void reset() {
+    switch (order) {
+      case OPAQUE -> VALUE.setOpaque(this, 0L);
+      case ACQUIRE_RELEASE -> VALUE.setRelease(this, 0L);
+      case VOLATILE -> VALUE.setVolatile(this, 0L);
+    }
+  }
+
+  // there is no opaque getAndAdd, a plain CAS is still atomic
+  private long getAndAddOpaque(long delta) {
+    while (true) {
+      long current = (long) VALUE.getOpaque(this);
+
+      if (VALUE.weakCompareAndSetPlain(this, current, current + delta)) {
+        return current;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,209 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.impl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+
+// Counter which also answers "how much in the last N seconds"
+// 1) Ring of time buckets:
+// - Time is split into buckets of a fixed duration, the last bucketCount buckets are kept in a ring.
+// - Memory is fixed: bucketCount x stripes cache lines, independent of the event volume.
+// 2) Lazy rotation:
+// - There is no background thread, the first update in a new time slot claims its bucket with CAS and clears it.
+// - An update delayed by more than a full ring may be counted in a newer bucket.
+// 3) Striping:
+// - Every bucket is striped by thread like StripedCounter, updates do not allocate.
+// 4) Net semantics:
+// - Buckets hold the net change, a decrement is subtracted from the bucket of its time slot.
+// - sumOver/rateOver therefore answer "net change in the last N seconds", not "events in the last N seconds"; equal increments and decrements give 0.
+// - For an event rate, only increment the counter (e.g. one WindowedCounter per event type).
+public class WindowedCounter implements ICounter {
+
+  private static final Duration DEFAULT_BUCKET_DURATION = Duration.ofSeconds(1);
+  private static final int DEFAULT_BUCKET_COUNT = 60;
+
+  // 8 longs = 64 bytes = one cache line
+  private static final int PADDING = 8;
+
+  // marks a bucket which is being cleared
+  private static final long ROTATING = -1;
+
+  private final long bucketNanos;
+  private final int bucketCount;
+  private final int stripeMask;
+  private final long origin = System.nanoTime();
+
+  private final AtomicLongArray epochs;
+  private final AtomicLongArray cells;
+
+  // all-time value for retrieve()
+  private final StripedCounter total;
+
+  public WindowedCounter() {
+    this(DEFAULT_BUCKET_DURATION, DEFAULT_BUCKET_COUNT);
+  }
+
+  public WindowedCounter(Duration bucketDuration, int bucketCount) {
+    if ((bucketDuration == null) || bucketDuration.isNegative() || bucketDuration.isZero()) {
+      throw new IllegalArgumentException("Bucket duration not valid!");
+    }
+
+    if (bucketCount <= 0) {
+      throw new IllegalArgumentException("Bucket count not valid!");
+    }
+
+    int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    this.bucketNanos = bucketDuration.toNanos();
+    this.bucketCount = bucketCount;
+    this.stripeMask = stripes - 1;
+    this.epochs = new AtomicLongArray(bucketCount);
+    this.cells = new AtomicLongArray((bucketCount * stripes + 1) * PADDING);
+    this.total = new StripedCounter(stripes);
+  }
+
+  @Override
+  public long retrieve() {
+    return total.retrieve();
+  }
+
+  @Override
+  public void increment() {
+    add(1);
+  }
+
+  @Override
+  public void decrement() {
+    add(-1);
+  }
+
+  @Override
+  public void add(long delta) {
+    total.add(delta);
+
+    long epoch = currentEpoch();
+    int bucket = (int) (epoch % bucketCount);
+
+    long bucketEpoch = epochs.get(bucket);
+
+    if (bucketEpoch != epoch) {
+      rotate(bucket, bucketEpoch, epoch);
+    }
+
+    int stripe = (int) (mix(Thread.currentThread().getId()) & stripeMask);
+    cells.getAndAdd(index(bucket, stripe), delta);
+  }
+
+  // not atomic: the sum may include concurrent updates of other threads
+  @Override
+  public long addAndGet(long delta) {
+    add(delta);
+    return retrieve();
+  }
+
+  // not atomic: the sum may include concurrent updates of other threads
+  @Override
+  public long getAndAdd(long delta) {
+    long previous = retrieve();
+    add(delta);
+    return previous;
+  }
+
+  @Override
+  public void reset() {
+    total.reset();
+
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      clear(bucket);
+    }
+  }
+
+  // net change in the buckets covering the given duration, including the current (partial) bucket
+  public long sumOver(Duration duration) {
+    validateDuration(duration);
+
+    long epoch = currentEpoch();
+    long buckets = bucketsOver(duration);
+
+    long sum = 0;
+
+    for (long i = 0; i < buckets; i++) {
+      long bucketEpoch = epoch - i;
+
+      if (bucketEpoch < 0) {
+        break;
+      }
+
+      int bucket = (int) (bucketEpoch % bucketCount);
+
+      // a bucket from an older lap of the ring is not part of the window
+      if (epochs.get(bucket) == bucketEpoch) {
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+          sum += cells.get(index(bucket, stripe));
+        }
+      }
+    }
+
+    return sum;
+  }
+
+  // net change per second, a duration longer than the ring is cut to the ring
+  public double rateOver(Duration duration) {
+    long sum = sumOver(duration);
+    long nanos = Math.min(duration.toNanos(), bucketsOver(duration) * bucketNanos);
+
+    return sum / (nanos / 1_000_000_000d);
+  }
+
+  private void rotate(int bucket, long bucketEpoch, long epoch) {
+    if ((bucketEpoch != ROTATING) && (bucketEpoch < epoch) && epochs.compareAndSet(bucket, bucketEpoch, ROTATING)) {
+      for (int stripe = 0; stripe <= stripeMask; stripe++) {
+        cells.set(index(bucket, stripe), 0);
+      }
+
+      epochs.set(bucket, epoch);
+      return;
+    }
+
+    // another thread is clearing the bucket
+    while (epochs.get(bucket) == ROTATING) {
+      Thread.onSpinWait();
+    }
+  }
+
+  private void clear(int bucket) {
+    for (int stripe = 0; stripe <= stripeMask; stripe++) {
+      cells.set(index(bucket, stripe), 0);
+    }
+
+    epochs.set(bucket, 0);
+  }
+
+  private long bucketsOver(Duration duration) {
+    return Math.min(bucketCount, Math.max(1, (duration.toNanos() + bucketNanos - 1) / bucketNanos));
+  }
+
+  private static void validateDuration(Duration duration) {
+    if ((duration == null) || duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException("Duration not valid!");
+    }
+  }
+
+  private long currentEpoch() {
+    return (System.nanoTime() - origin) / bucketNanos;
+  }
+
+  private int index(int bucket, int stripe) {
+    return ((bucket * (stripeMask + 1)) + stripe + 1) * PADDING;
+  }
+
+  // murmur3 finalizer, spreads consecutive thread ids over the stripes
+  private static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return h;
+  }
+
+}
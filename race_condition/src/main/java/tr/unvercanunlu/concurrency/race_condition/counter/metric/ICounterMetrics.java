@@ -0,0 +1,30 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.metric;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+// Contention metrics of an instrumented counter, also exposed over JMX
+@MXBean
+public interface ICounterMetrics {
+
+  boolean isEnabled();
+
+  void setEnabled(boolean enabled);
+
+  long getOperations();
+
+  long getCasFailures();
+
+  long getLockAcquisitions();
+
+  long getLockWaitNanos();
+
+  long getLockHoldNanos();
+
+  Map<String, Long> getOperationsPerStripe();
+
+  String getSummary();
+
+  void reset();
+
+}
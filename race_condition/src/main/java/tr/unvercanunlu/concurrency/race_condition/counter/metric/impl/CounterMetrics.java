@@ -0,0 +1,188 @@
+package tr.unvercanunlu.concurrency.race_condition.counter.metric.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import tr.unvercanunlu.concurrency.race_condition.counter.metric.ICounterMetrics;
+
+// Low overhead metric storage
+// - All values are LongAdders, so recording does not add a new contention point to the measured counter.
+// - Per-thread counts live in a fixed array of padded stripes indexed by a thread id hash, memory stays bounded however many threads come and go.
+// - Threads hashed to the same stripe are counted together, so the distribution is per stripe, not strictly per thread.
+// - Recording can be switched off at runtime (also over JMX) to measure the overhead of the instrumentation itself.
+public class CounterMetrics implements ICounterMetrics {
+
+  private static final String DOMAIN = "tr.unvercanunlu.concurrency";
+
+  private static final int STRIPES = 64;
+  private static final int STRIPE_MASK = STRIPES - 1;
+
+  // cells are 8 longs (64 bytes) apart, so stripes do not share a cache line
+  private static final int PADDING = 8;
+
+  private volatile boolean enabled;
+
+  private final LongAdder operations = new LongAdder();
+  private final LongAdder casFailures = new LongAdder();
+  private final LongAdder lockAcquisitions = new LongAdder();
+  private final LongAdder lockWaitNanos = new LongAdder();
+  private final LongAdder lockHoldNanos = new LongAdder();
+
+  private final AtomicLongArray stripeOperations = new AtomicLongArray((STRIPES + 1) * PADDING);
+
+  private ObjectName objectName;
+
+  public CounterMetrics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public void recordOperation() {
+    operations.increment();
+    stripeOperations.getAndIncrement(index((int) (mix(Thread.currentThread().getId()) & STRIPE_MASK)));
+  }
+
+  public void recordCasFailures(long failures) {
+    if (failures > 0) {
+      casFailures.add(failures);
+    }
+  }
+
+  public void recordLock(long waitNanos, long holdNanos) {
+    lockAcquisitions.increment();
+    lockWaitNanos.add(waitNanos);
+    lockHoldNanos.add(holdNanos);
+  }
+
+  // registers the metrics to the platform MBean server, replaces an earlier registration with the same name
+  public synchronized void register(String name) {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+      unregister();
+
+      ObjectName newName = new ObjectName(DOMAIN + ":type=Counter,name=" + ObjectName.quote(name));
+
+      if (server.isRegistered(newName)) {
+        server.unregisterMBean(newName);
+      }
+
+      server.registerMBean(this, newName);
+      objectName = newName;
+
+    } catch (JMException e) {
+      throw new IllegalStateException("Counter metrics cannot be registered!", e);
+    }
+  }
+
+  public synchronized void unregister() {
+    if (objectName == null) {
+      return;
+    }
+
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+
+    } catch (JMException e) {
+      throw new IllegalStateException("Counter metrics cannot be unregistered!", e);
+
+    } finally {
+      objectName = null;
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  public long getOperations() {
+    return operations.sum();
+  }
+
+  @Override
+  public long getCasFailures() {
+    return casFailures.sum();
+  }
+
+  @Override
+  public long getLockAcquisitions() {
+    return lockAcquisitions.sum();
+  }
+
+  @Override
+  public long getLockWaitNanos() {
+    return lockWaitNanos.sum();
+  }
+
+  @Override
+  public long getLockHoldNanos() {
+    return lockHoldNanos.sum();
+  }
+
+  @Override
+  public Map<String, Long> getOperationsPerStripe() {
+    Map<String, Long> operationsPerStripe = new LinkedHashMap<>();
+
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      long stripeValue = stripeOperations.get(index(stripe));
+
+      if (stripeValue != 0) {
+        operationsPerStripe.put("stripe-" + stripe, stripeValue);
+      }
+    }
+
+    return operationsPerStripe;
+  }
+
+  @Override
+  public String getSummary() {
+    LongSummaryStatistics perStripe = getOperationsPerStripe().values()
+        .stream()
+        .mapToLong(Long::longValue)
+        .summaryStatistics();
+
+    return "enabled=%s operations=%d cas-failures=%d lock-acquisitions=%d lock-wait=%dns lock-hold=%dns stripes=%d per-stripe-min=%d per-stripe-max=%d"
+        .formatted(enabled, getOperations(), getCasFailures(), getLockAcquisitions(), getLockWaitNanos(), getLockHoldNanos(),
+            perStripe.getCount(), (perStripe.getCount() == 0) ? 0 : perStripe.getMin(), (perStripe.getCount() == 0) ? 0 : perStripe.getMax());
+  }
+
+  @Override
+  public void reset() {
+    operations.reset();
+    casFailures.reset();
+    lockAcquisitions.reset();
+    lockWaitNanos.reset();
+    lockHoldNanos.reset();
+
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      stripeOperations.set(index(stripe), 0);
+    }
+  }
+
+  // the first cell is left empty, so the first stripe is not next to the array header
+  private static int index(int stripe) {
+    return (stripe + 1) * PADDING;
+  }
+
+  // murmur3 finalizer, spreads consecutive thread ids over the stripes
+  private static long mix(long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return h;
+  }
+
+}
@@ -0,0 +1,55 @@
+package tr.unvercanunlu.concurrency.race_condition.task;
+
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import tr.unvercanunlu.concurrency.race_condition.config.Config;
+import tr.unvercanunlu.concurrency.race_condition.task.impl.MeasuredTaskRunner;
+import tr.unvercanunlu.concurrency.race_condition.task.impl.PooledTaskRunner;
+import tr.unvercanunlu.concurrency.race_condition.task.impl.TaskRunner;
+
+@RequiredArgsConstructor
+public enum ExecutionMode {
+
+  // one platform thread per operation
+  THREAD(TaskRunner::new, Config.OPERATION_COUNT_MIN, Config.OPERATION_COUNT_MAX),
+
+  // fixed pool sized to the cores, each worker runs its share of operations in a loop
+  POOL(PooledTaskRunner::new, Config.POOL_OPERATION_COUNT_MIN, Config.POOL_OPERATION_COUNT_MAX),
+
+  // worker pool applying increments and decrements in batches with add()
+  BATCHED(() -> new PooledTaskRunner(Config.WORKER_COUNT, Config.BATCH_SIZE), Config.POOL_OPERATION_COUNT_MIN, Config.POOL_OPERATION_COUNT_MAX),
+
+  // one virtual thread per operation, only available with the java21 build profile
+  VIRTUAL(ExecutionMode::createVirtualThreadRunner, Config.VIRTUAL_OPERATION_COUNT_MIN, Config.VIRTUAL_OPERATION_COUNT_MAX),
+
+  // workers released together from a start gate, per-operation latency histograms
+  MEASURED(MeasuredTaskRunner::new, Config.MEASURED_OPERATION_COUNT_MIN, Config.MEASURED_OPERATION_COUNT_MAX);
+
+  private static final String VIRTUAL_THREAD_RUNNER = "tr.unvercanunlu.concurrency.race_condition.task.impl.VirtualThreadTaskRunner";
+
+  private final Supplier<ITaskRunner> runnerFactory;
+
+  @Getter
+  private final long operationCountMin;
+
+  @Getter
+  private final long operationCountMax;
+
+  public ITaskRunner createRunner() {
+    return runnerFactory.get();
+  }
+
+  // loaded by name, the class is only compiled on java 21
+  private static ITaskRunner createVirtualThreadRunner() {
+    try {
+      return (ITaskRunner) Class.forName(VIRTUAL_THREAD_RUNNER)
+          .getDeclaredConstructor()
+          .newInstance();
+
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual thread mode requires the java21 build profile!", e);
+    }
+  }
+
+}
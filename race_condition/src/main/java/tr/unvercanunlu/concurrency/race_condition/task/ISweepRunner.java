@@ -0,0 +1,10 @@
+package tr.unvercanunlu.concurrency.race_condition.task;
+
+import java.util.List;
+import tr.unvercanunlu.concurrency.race_condition.counter.CounterType;
+
+public interface ISweepRunner {
+
+  void run(List<CounterType> types, int[] threadCounts);
+
+}
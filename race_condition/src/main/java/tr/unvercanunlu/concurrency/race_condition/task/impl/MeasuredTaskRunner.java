@@ -0,0 +1,155 @@
+package tr.unvercanunlu.concurrency.race_condition.task.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.SneakyThrows;
+import tr.unvercanunlu.concurrency.race_condition.config.Config;
+import tr.unvercanunlu.concurrency.race_condition.counter.IBatchingCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.IInstrumentedCounter;
+import tr.unvercanunlu.concurrency.race_condition.task.ITaskRunner;
+import tr.unvercanunlu.concurrency.race_condition.util.LatencyHistogram;
+
+// Measures latency of every single operation
+// 1) Coordinated start:
+// - All workers are created and parked on a start gate first, then released together.
+// - No worker finishes before the last one starts, so the timing is not skewed by thread start-up.
+// 2) No spinning:
+// - The runner waits on latches instead of polling thread states.
+// 3) Tail latency:
+// - Each operation type has its own lock-free histogram (p50/p99/p99.9/max).
+public class MeasuredTaskRunner implements ITaskRunner {
+
+  // logger
+  private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+  private final int workers;
+
+  public MeasuredTaskRunner() {
+    this(Config.WORKER_COUNT);
+  }
+
+  public MeasuredTaskRunner(int workers) {
+    if (workers <= 0) {
+      throw new IllegalArgumentException("Workers not valid!");
+    }
+
+    this.workers = workers;
+  }
+
+  @SneakyThrows
+  @Override
+  public void run(ICounter counter, long increments, long decrements, long retrieves) {
+    String message = "Parameters: #increments=%d #decrements=%d #retrieves=%d #workers=%d".formatted(increments, decrements, retrieves, workers);
+    logger.log(Level.INFO, message);
+
+    long expected = increments - decrements;
+
+    LatencyHistogram incrementLatency = new LatencyHistogram();
+    LatencyHistogram decrementLatency = new LatencyHistogram();
+    LatencyHistogram retrieveLatency = new LatencyHistogram();
+
+    CountDownLatch ready = new CountDownLatch(workers);
+    CountDownLatch startGate = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(workers);
+
+    List<Thread> threads = new ArrayList<>(workers);
+
+    for (int worker = 0; worker < workers; worker++) {
+      long workerIncrements = share(increments, worker);
+      long workerDecrements = share(decrements, worker);
+      long workerRetrieves = share(retrieves, worker);
+
+      Runnable task = () -> {
+        try {
+          ready.countDown();
+          startGate.await();
+
+          long rounds = Math.max(workerIncrements, Math.max(workerDecrements, workerRetrieves));
+
+          for (long i = 0; i < rounds; i++) {
+            if (i < workerIncrements) {
+              long begin = System.nanoTime();
+              counter.increment();
+              incrementLatency.record(System.nanoTime() - begin);
+            }
+
+            if (i < workerDecrements) {
+              long begin = System.nanoTime();
+              counter.decrement();
+              decrementLatency.record(System.nanoTime() - begin);
+            }
+
+            if (i < workerRetrieves) {
+              long begin = System.nanoTime();
+              counter.retrieve();
+              retrieveLatency.record(System.nanoTime() - begin);
+            }
+          }
+
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          logger.log(Level.SEVERE, "Worker is interrupted: {0}", e.getMessage());
+
+        } catch (Exception e) {
+          logger.log(Level.SEVERE, "Worker failed: {0}", e.getMessage());
+
+        } finally {
+          // pending changes of a batching counter are applied before the worker reports done
+          IBatchingCounter.flushIfBatching(counter);
+          done.countDown();
+        }
+      };
+
+      threads.add(new Thread(task, "worker-%d".formatted(worker)));
+    }
+
+    threads.forEach(Thread::start);
+
+    // all workers are parked on the start gate
+    ready.await();
+
+    logger.log(Level.INFO, "Total {0} workers are ready. Workers are released.", workers);
+
+    long start = System.nanoTime();
+
+    startGate.countDown();
+    done.await();
+
+    long end = System.nanoTime();
+
+    logger.log(Level.INFO, "Waiting for completing all workers is completed.");
+
+    Duration duration = Duration.ofNanos(end - start);
+    logger.log(Level.INFO, "Duration: {0} milliseconds.", duration.toMillis());
+
+    long operations = increments + decrements + retrieves;
+    double throughput = operations / (duration.toNanos() / 1_000_000_000d);
+
+    message = "Throughput: %.0f operations/second".formatted(throughput);
+    logger.log(Level.INFO, message);
+
+    logger.log(Level.INFO, "Increment latency: {0}", incrementLatency.summary());
+    logger.log(Level.INFO, "Decrement latency: {0}", decrementLatency.summary());
+    logger.log(Level.INFO, "Retrieve latency: {0}", retrieveLatency.summary());
+
+    long actual = counter.retrieve();
+    long error = actual - expected;
+
+    message = "Counter: Actual=%d Expected=%d Error=%d".formatted(actual, expected, error);
+    logger.log(Level.INFO, message);
+
+    if (counter instanceof IInstrumentedCounter instrumentedCounter) {
+      logger.log(Level.INFO, "Metrics: {0}", instrumentedCounter.getMetrics().getSummary());
+    }
+  }
+
+  private long share(long total, int worker) {
+    return (total / workers) + ((worker < (total % workers)) ? 1 : 0);
+  }
+
+}
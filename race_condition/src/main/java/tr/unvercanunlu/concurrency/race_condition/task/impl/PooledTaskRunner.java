@@ -0,0 +1,163 @@
+package tr.unvercanunlu.concurrency.race_condition.task.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.SneakyThrows;
+import tr.unvercanunlu.concurrency.race_condition.config.Config;
+import tr.unvercanunlu.concurrency.race_condition.counter.IBatchingCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.IInstrumentedCounter;
+import tr.unvercanunlu.concurrency.race_condition.task.ITaskRunner;
+
+// Runs the operations on a fixed pool instead of one thread per operation
+// - Each worker gets an equal share of increments, decrements and retrieves and runs them interleaved in a loop.
+// - Thread creation and scheduling are no longer part of the measurement, so the duration reflects the counter itself.
+// - With a batch size above 1, increments and decrements are applied with a single add() per batch.
+public class PooledTaskRunner implements ITaskRunner {
+
+  // logger
+  private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+  private final int workers;
+  private final int batchSize;
+
+  public PooledTaskRunner() {
+    this(Config.WORKER_COUNT, 1);
+  }
+
+  public PooledTaskRunner(int workers, int batchSize) {
+    if (workers <= 0) {
+      throw new IllegalArgumentException("Workers not valid!");
+    }
+
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size not valid!");
+    }
+
+    this.workers = workers;
+    this.batchSize = batchSize;
+  }
+
+  @SneakyThrows
+  @Override
+  public void run(ICounter counter, long increments, long decrements, long retrieves) {
+    String message = "Parameters: #increments=%d #decrements=%d #retrieves=%d #workers=%d #batch-size=%d".formatted(increments, decrements, retrieves, workers, batchSize);
+    logger.log(Level.INFO, message);
+
+    long expected = increments - decrements;
+
+    List<Callable<Long>> tasks = new ArrayList<>(workers);
+
+    for (int worker = 0; worker < workers; worker++) {
+      long workerIncrements = share(increments, worker);
+      long workerDecrements = share(decrements, worker);
+      long workerRetrieves = share(retrieves, worker);
+
+      tasks.add(() -> work(counter, workerIncrements, workerDecrements, workerRetrieves));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(workers);
+
+    logger.log(Level.INFO, "Total {0} workers are created. Workers are starting.", workers);
+
+    long start = System.nanoTime();
+
+    List<Future<Long>> futures;
+
+    try {
+      futures = executor.invokeAll(tasks);
+
+    } finally {
+      executor.shutdown();
+    }
+
+    long end = System.nanoTime();
+
+    for (Future<Long> future : futures) {
+      try {
+        future.get();
+
+      } catch (ExecutionException e) {
+        logger.log(Level.SEVERE, "Worker failed: {0}", e.getCause().getMessage());
+      }
+    }
+
+    logger.log(Level.INFO, "Waiting for completing all workers is completed.");
+
+    Duration duration = Duration.ofNanos(end - start);
+    logger.log(Level.INFO, "Duration: {0} milliseconds.", duration.toMillis());
+
+    long operations = increments + decrements + retrieves;
+    double throughput = operations / (duration.toNanos() / 1_000_000_000d);
+
+    message = "Throughput: %.0f operations/second".formatted(throughput);
+    logger.log(Level.INFO, message);
+
+    long actual = counter.retrieve();
+    long error = actual - expected;
+
+    message = "Counter: Actual=%d Expected=%d Error=%d".formatted(actual, expected, error);
+    logger.log(Level.INFO, message);
+
+    if (counter instanceof IInstrumentedCounter instrumentedCounter) {
+      logger.log(Level.INFO, "Metrics: {0}", instrumentedCounter.getMetrics().getSummary());
+    }
+  }
+
+  // operations are interleaved, so increments, decrements and retrieves contend with each other like in TaskRunner
+  private long work(ICounter counter, long increments, long decrements, long retrieves) {
+    long remainingIncrements = increments;
+    long remainingDecrements = decrements;
+    long remainingRetrieves = retrieves;
+
+    // keeps retrieve results alive so that the calls are not optimized away
+    long sink = 0;
+
+    while ((remainingIncrements > 0) || (remainingDecrements > 0) || (remainingRetrieves > 0)) {
+      long incrementBatch = Math.min(batchSize, remainingIncrements);
+
+      if (incrementBatch == 1) {
+        counter.increment();
+      } else if (incrementBatch > 1) {
+        counter.add(incrementBatch);
+      }
+
+      long decrementBatch = Math.min(batchSize, remainingDecrements);
+
+      if (decrementBatch == 1) {
+        counter.decrement();
+      } else if (decrementBatch > 1) {
+        counter.add(-decrementBatch);
+      }
+
+      // retrieves are not batched, a batch of writes is followed by the same number of reads
+      long retrieveBatch = Math.min(batchSize, remainingRetrieves);
+
+      for (long i = 0; i < retrieveBatch; i++) {
+        sink += counter.retrieve();
+      }
+
+      remainingIncrements -= incrementBatch;
+      remainingDecrements -= decrementBatch;
+      remainingRetrieves -= retrieveBatch;
+    }
+
+    // pending changes of a batching counter are applied before the worker finishes
+    IBatchingCounter.flushIfBatching(counter);
+
+    return sink;
+  }
+
+  private long share(long total, int worker) {
+    return (total / workers) + ((worker < (total % workers)) ? 1 : 0);
+  }
+
+}
@@ -0,0 +1,202 @@
+package tr.unvercanunlu.concurrency.race_condition.task.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import tr.unvercanunlu.concurrency.race_condition.config.Config;
+import tr.unvercanunlu.concurrency.race_condition.counter.CounterType;
+import tr.unvercanunlu.concurrency.race_condition.counter.IBatchingCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+import tr.unvercanunlu.concurrency.race_condition.task.ISweepRunner;
+
+// Throughput of every counter against the number of threads
+// 1) Fixed duration:
+// - Each run lasts the same time instead of a random number of operations, so runs are comparable.
+// 2) Deterministic mix:
+// - Every worker repeats the same cycle of 100 operations: read-percent retrieves, the rest alternating increments and decrements.
+// - The expected value follows from the per-worker counts, so the error of unsafe counters is exact.
+// 3) Fairness:
+// - Jain's index over the per-worker operation counts: 1 when all workers progress equally, 1/threads when one worker does everything.
+// 4) Output:
+// - One row per counter, read percent, thread count and repeat, written as CSV and JSON.
+@RequiredArgsConstructor
+public class SweepTaskRunner implements ISweepRunner {
+
+  private static final int CYCLE = 100;
+
+  // logger
+  private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+  private final long durationMillis;
+  private final int repeats;
+  private final List<Integer> readPercents;
+  private final Path csvOutput;
+  private final Path jsonOutput;
+
+  public SweepTaskRunner() {
+    this(Config.SWEEP_DURATION_MILLIS, Config.SWEEP_REPEATS, Config.SWEEP_READ_PERCENTS, Path.of(Config.SWEEP_OUTPUT + ".csv"), Path.of(Config.SWEEP_OUTPUT + ".json"));
+  }
+
+  @SneakyThrows
+  @Override
+  public void run(List<CounterType> types, int[] threadCounts) {
+    String message = "Parameters: #counters=%d #thread-counts=%d #repeats=%d read-percents=%s duration=%d milliseconds"
+        .formatted(types.size(), threadCounts.length, repeats, readPercents, durationMillis);
+    logger.log(Level.INFO, message);
+
+    List<Result> results = new ArrayList<>();
+
+    for (CounterType type : types) {
+      for (int readPercent : readPercents) {
+        for (int threads : threadCounts) {
+          for (int repeat = 1; repeat <= repeats; repeat++) {
+            Result result = runOnce(type, readPercent, threads, repeat);
+            results.add(result);
+
+            message = "Counter=%s Read=%d%% Threads=%d Repeat=%d Throughput=%.0f operations/second Fairness=%.3f Error=%d"
+                .formatted(type, readPercent, threads, repeat, result.getThroughput(), result.getFairness(), result.getError());
+            logger.log(Level.INFO, message);
+          }
+        }
+      }
+    }
+
+    Files.writeString(csvOutput, toCsv(results));
+    Files.writeString(jsonOutput, toJson(results));
+
+    logger.log(Level.INFO, "Sweep results are written to {0} and {1}.", new Object[]{csvOutput.toAbsolutePath(), jsonOutput.toAbsolutePath()});
+  }
+
+  private Result runOnce(CounterType type, int readPercent, int threads, int repeat) throws InterruptedException {
+    ICounter counter = type.create();
+
+    long[] operations = new long[threads];
+    long[] expected = new long[threads];
+
+    CountDownLatch ready = new CountDownLatch(threads);
+    CountDownLatch startGate = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+
+    AtomicBoolean stop = new AtomicBoolean();
+
+    for (int worker = 0; worker < threads; worker++) {
+      int index = worker;
+
+      Runnable task = () -> {
+        long count = 0;
+        long value = 0;
+
+        try {
+          ready.countDown();
+          startGate.await();
+
+          while (!stop.get()) {
+            for (int slot = 0; slot < CYCLE; slot++) {
+              if (slot < readPercent) {
+                counter.retrieve();
+
+              } else if (((slot - readPercent) % 2) == 0) {
+                counter.increment();
+                value++;
+
+              } else {
+                counter.decrement();
+                value--;
+              }
+            }
+
+            count += CYCLE;
+          }
+
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          logger.log(Level.SEVERE, "Worker is interrupted: {0}", e.getMessage());
+
+        } finally {
+          // pending changes of a batching counter are applied before the worker reports done
+          IBatchingCounter.flushIfBatching(counter);
+          operations[index] = count;
+          expected[index] = value;
+          done.countDown();
+        }
+      };
+
+      new Thread(task, "sweep-worker-%d".formatted(worker)).start();
+    }
+
+    ready.await();
+
+    long start = System.nanoTime();
+
+    startGate.countDown();
+    Thread.sleep(durationMillis);
+    stop.set(true);
+    done.await();
+
+    long end = System.nanoTime();
+
+    // the latch makes the worker writes visible here
+    long totalOperations = 0;
+    long expectedValue = 0;
+    double squareSum = 0;
+
+    for (int worker = 0; worker < threads; worker++) {
+      totalOperations += operations[worker];
+      expectedValue += expected[worker];
+      squareSum += (double) operations[worker] * operations[worker];
+    }
+
+    double fairness = (squareSum == 0) ? 1 : ((double) totalOperations * totalOperations) / (threads * squareSum);
+
+    double throughput = totalOperations / ((end - start) / 1_000_000_000d);
+    long error = counter.retrieve() - expectedValue;
+
+    return new Result(type, readPercent, threads, repeat, totalOperations, (end - start) / 1_000_000, throughput, fairness, error);
+  }
+
+  // locale-independent number format
+  private String toCsv(List<Result> results) {
+    String header = "counter,read_percent,threads,repeat,operations,duration_ms,throughput,fairness,error\n";
+
+    return results.stream()
+        .map(result -> String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%.0f,%.4f,%d", result.getType(), result.getReadPercent(), result.getThreads(),
+            result.getRepeat(), result.getOperations(), result.getDurationMillis(), result.getThroughput(), result.getFairness(), result.getError()))
+        .collect(Collectors.joining("\n", header, "\n"));
+  }
+
+  private String toJson(List<Result> results) {
+    return results.stream()
+        .map(result -> String.format(Locale.ROOT,
+            "  {\"counter\": \"%s\", \"readPercent\": %d, \"threads\": %d, \"repeat\": %d, \"operations\": %d, \"durationMs\": %d, \"throughput\": %.0f, \"fairness\": %.4f, \"error\": %d}",
+            result.getType(), result.getReadPercent(), result.getThreads(), result.getRepeat(), result.getOperations(), result.getDurationMillis(),
+            result.getThroughput(), result.getFairness(), result.getError()))
+        .collect(Collectors.joining(",\n", "[\n", "\n]\n"));
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  private static class Result {
+
+    private final CounterType type;
+    private final int readPercent;
+    private final int threads;
+    private final int repeat;
+    private final long operations;
+    private final long durationMillis;
+    private final double throughput;
+    private final double fairness;
+    private final long error;
+
+  }
+
+}
@@ -12,7 +12,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import lombok.SneakyThrows;
+import tr.unvercanunlu.concurrency.race_condition.counter.IBatchingCounter;
 import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.IInstrumentedCounter;
 import tr.unvercanunlu.concurrency.race_condition.task.ITaskRunner;
 
 public class TaskRunner implements ITaskRunner {
@@ -36,6 +38,8 @@ public class TaskRunner implements ITaskRunner {
       Runnable task = () -> {
         try {
           counter.increment();
+          // the thread ends here, a batching counter must not keep the change
+          IBatchingCounter.flushIfBatching(counter);
 
         } catch (Exception e) {
           logger.log(Level.SEVERE, "Increment operation failed: {0}", e.getMessage());
@@ -53,6 +57,8 @@ public class TaskRunner implements ITaskRunner {
       Runnable task = () -> {
         try {
           counter.decrement();
+          // the thread ends here, a batching counter must not keep the change
+          IBatchingCounter.flushIfBatching(counter);
 
         } catch (Exception e) {
           logger.log(Level.SEVERE, "Decrement operation failed: {0}", e.getMessage());
@@ -64,7 +70,7 @@ public class TaskRunner implements ITaskRunner {
       threadMap.computeIfAbsent(-1, change -> new HashSet<>()).add(thread);
     }
 
-    for (int i = 0; i < decrements; i++) {
+    for (int i = 0; i < retrieves; i++) {
       String name = "thread-%s-%d".formatted("retrieve", i);
 
       Runnable task = () -> {
@@ -117,7 +123,7 @@ public class TaskRunner implements ITaskRunner {
 
     logger.log(Level.INFO, "Waiting for completing all threads is completed.");
 
-    Duration duration = Duration.of(end - start, ChronoUnit.MILLIS);
+    Duration duration = Duration.ofNanos(end - start);
     logger.log(Level.INFO, "Duration: {0} milliseconds.", duration.toMillis());
 
     long actual = counter.retrieve();
@@ -125,6 +131,10 @@ public class TaskRunner implements ITaskRunner {
 
     message = "Counter: Actual=%d Expected=%d Error=%d".formatted(actual, expected, error);
     logger.log(Level.INFO, message);
+
+    if (counter instanceof IInstrumentedCounter instrumentedCounter) {
+      logger.log(Level.INFO, "Metrics: {0}", instrumentedCounter.getMetrics().getSummary());
+    }
   }
 
 }
@@ -0,0 +1,92 @@
+package tr.unvercanunlu.concurrency.race_condition.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free log-linear latency histogram
+// - Values below 2^SUB_BUCKET_BITS are counted exactly, above that every power of two is split into 2^SUB_BUCKET_BITS buckets.
+// - Relative error of a reported percentile is at most 1 / 2^SUB_BUCKET_BITS (~6%).
+// - record() is one atomic add on a bucket, plus a CAS only when a new maximum is seen.
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong max = new AtomicLong(0);
+
+  public void record(long nanos) {
+    long value = Math.max(nanos, 0);
+
+    buckets.getAndIncrement(index(value));
+
+    if (value > max.get()) {
+      max.accumulateAndGet(value, Math::max);
+    }
+  }
+
+  public long count() {
+    long count = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      count += buckets.get(i);
+    }
+
+    return count;
+  }
+
+  public long max() {
+    return max.get();
+  }
+
+  // upper bound of the bucket containing the given percentile (0-100)
+  public long percentile(double percentile) {
+    long count = count();
+
+    if (count == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil((percentile / 100d) * count));
+    long cumulative = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      cumulative += buckets.get(i);
+
+      if (cumulative >= rank) {
+        return Math.min(upperBound(i), max());
+      }
+    }
+
+    return max();
+  }
+
+  public String summary() {
+    return "count=%d p50=%dns p99=%dns p99.9=%dns max=%dns".formatted(count(), percentile(50), percentile(99), percentile(99.9), max());
+  }
+
+  private static int index(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+    return ((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT) + subBucket;
+  }
+
+  private static long upperBound(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+
+    int exponent = (index / SUB_BUCKET_COUNT) + SUB_BUCKET_BITS - 1;
+    long subBucket = index % SUB_BUCKET_COUNT;
+    long lowerBound = (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+
+    return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+
+}
@@ -0,0 +1,131 @@
+package tr.unvercanunlu.concurrency.race_condition.task.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.SneakyThrows;
+import tr.unvercanunlu.concurrency.race_condition.counter.IBatchingCounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.ICounter;
+import tr.unvercanunlu.concurrency.race_condition.counter.IInstrumentedCounter;
+import tr.unvercanunlu.concurrency.race_condition.task.ITaskRunner;
+
+// Runs every operation on its own virtual thread (requires the java21 build profile)
+// - Millions of operations can be launched concurrently, virtual threads are cheap to create.
+// - A virtual thread blocking inside synchronized pins its carrier thread, j.u.c locks unmount it instead.
+// - Pinning is counted with two JFR events and reported with the throughput:
+//   jdk.VirtualThreadPinned fires only when a pinned virtual thread parks (e.g. Object.wait or a j.u.c lock inside synchronized),
+//   blocking on monitor entry never parks, so it is counted separately with jdk.JavaMonitorEnter on virtual threads.
+public class VirtualThreadTaskRunner implements ITaskRunner {
+
+  // logger
+  private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+  @SneakyThrows
+  @Override
+  public void run(ICounter counter, long increments, long decrements, long retrieves) {
+    String message = "Parameters: #increments=%d #decrements=%d #retrieves=%d".formatted(increments, decrements, retrieves);
+    logger.log(Level.INFO, message);
+
+    long expected = increments - decrements;
+
+    LongAdder pinned = new LongAdder();
+    LongAdder monitorBlocked = new LongAdder();
+
+    long start;
+    long end;
+
+    try (RecordingStream recording = new RecordingStream()) {
+      recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+      recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+
+      // a virtual thread blocked entering a monitor holds its carrier for the whole wait
+      recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ZERO);
+      recording.onEvent("jdk.JavaMonitorEnter", event -> {
+        if ((event.getThread() != null) && event.getThread().isVirtual()) {
+          monitorBlocked.increment();
+        }
+      });
+      recording.startAsync();
+
+      logger.log(Level.INFO, "Total {0} virtual threads are starting.", increments + decrements + retrieves);
+
+      start = System.nanoTime();
+
+      // close() waits for all submitted tasks
+      try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("virtual-", 0).factory())) {
+        long rounds = Math.max(increments, Math.max(decrements, retrieves));
+
+        // submitted interleaved, so increments, decrements and retrieves contend with each other
+        for (long i = 0; i < rounds; i++) {
+          if (i < increments) {
+            executor.execute(() -> {
+              try {
+                counter.increment();
+                // the thread ends here, a batching counter must not keep the change
+                IBatchingCounter.flushIfBatching(counter);
+
+              } catch (Exception e) {
+                logger.log(Level.SEVERE, "Increment operation failed: {0}", e.getMessage());
+              }
+            });
+          }
+
+          if (i < decrements) {
+            executor.execute(() -> {
+              try {
+                counter.decrement();
+                // the thread ends here, a batching counter must not keep the change
+                IBatchingCounter.flushIfBatching(counter);
+
+              } catch (Exception e) {
+                logger.log(Level.SEVERE, "Decrement operation failed: {0}", e.getMessage());
+              }
+            });
+          }
+
+          if (i < retrieves) {
+            executor.execute(() -> {
+              try {
+                counter.retrieve();
+
+              } catch (Exception e) {
+                logger.log(Level.SEVERE, "Retrieve operation failed: {0}", e.getMessage());
+              }
+            });
+          }
+        }
+      }
+
+      end = System.nanoTime();
+
+      // flushes the remaining events
+      recording.stop();
+    }
+
+    logger.log(Level.INFO, "Waiting for completing all virtual threads is completed.");
+
+    Duration duration = Duration.ofNanos(end - start);
+    logger.log(Level.INFO, "Duration: {0} milliseconds.", duration.toMillis());
+
+    long operations = increments + decrements + retrieves;
+    double throughput = operations / (duration.toNanos() / 1_000_000_000d);
+
+    message = "Throughput: %.0f operations/second, Pinned: parked=%d monitor-blocked=%d".formatted(throughput, pinned.sum(), monitorBlocked.sum());
+    logger.log(Level.INFO, message);
+
+    long actual = counter.retrieve();
+    long error = actual - expected;
+
+    message = "Counter: Actual=%d Expected=%d Error=%d".formatted(actual, expected, error);
+    logger.log(Level.INFO, message);
+
+    if (counter instanceof IInstrumentedCounter instrumentedCounter) {
+      logger.log(Level.INFO, "Metrics: {0}", instrumentedCounter.getMetrics().getSummary());
+    }
+  }
+
+}